@@ -0,0 +1,46 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.dto.AccountDto;
+import com.example.Account.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService.createAccount 비용 측정
+ * 사용자당 계좌는 10개로 제한되므로 매 호출마다 새 사용자를 준비한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountService = context.getBean(AccountService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class FreshUser {
+        Long userId;
+
+        @Setup(Level.Invocation)
+        public void create(AccountServiceBenchmark benchmark) {
+            userId = BenchmarkContext.createUser(benchmark.context, "benchmark").getId();
+        }
+    }
+
+    @Benchmark
+    public AccountDto createAccount(FreshUser freshUser) {
+        return accountService.createAccount(freshUser.userId, 1000L);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.AccountUser;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import com.example.Account.service.engine.BalanceEngine;
+import com.example.Account.service.lock.AccountLockHandle;
+import com.example.Account.service.lock.LockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 사용 처리 방식 비교
+ * - engine : LOCK (요청마다 redis lock 후 TransactionService, @AccountLock 경로) / SHARDED (ShardedBalanceEngine)
+ *   / REDIS (RedisBalanceEngine) / JOURNAL (JournalBalanceEngine)
+ * - workload : UNIFORM (계좌에 고르게 분산) / SKEWED (요청의 hotRatio 가 한 계좌에 몰림)
+ * 스레드 수는 -PjmhThreads 로 지정한다.
+ * ./gradlew jmh -PjmhThreads=16 -PjmhIncludes=BalanceEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BalanceEngineBenchmark {
+    private static final long AMOUNT = 100L;
+    private static final int ACCOUNT_COUNT = 100;
+
+    public enum Engine {
+        LOCK, SHARDED, REDIS, JOURNAL
+    }
+
+    public enum Workload {
+        UNIFORM, SKEWED
+    }
+
+    @Param({"LOCK", "SHARDED", "REDIS", "JOURNAL"})
+    public Engine engine;
+
+    @Param({"UNIFORM", "SKEWED"})
+    public Workload workload;
+
+    @Param({"0.8"})
+    public double hotRatio;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private BalanceEngine balanceEngine;
+    private Long userId;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (engine == Engine.LOCK) {
+            context = BenchmarkContext.start("account.lock.provider=redis");
+            lockService = context.getBean(LockService.class);
+        } else {
+            context = BenchmarkContext.start(
+                    "account.lock.provider=none",
+                    "account.transaction.engine=" + engine.name().toLowerCase(),
+                    // trial 마다 새 DB 이므로 저널도 새 디렉토리에서 시작
+                    "account.transaction.journal.dir="
+                            + Files.createTempDirectory("benchmark-journal"));
+            balanceEngine = context.getBean(BalanceEngine.class);
+        }
+        transactionService = context.getBean(TransactionService.class);
+
+        AccountUser user = BenchmarkContext.createUser(context, "benchmark");
+        userId = user.getId();
+        accountNumbers = BenchmarkContext.createAccounts(context, user, ACCOUNT_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // lock 획득 실패(ACCOUNT_TRANSACTION_LOCK)도 결과로 소비하고 측정은 계속한다.
+    @Benchmark
+    public Object useBalance() {
+        String accountNumber = pickAccount();
+        try {
+            if (engine == Engine.LOCK) {
+                return useWithLock(accountNumber);
+            }
+            return balanceEngine.useBalance(userId, accountNumber, AMOUNT);
+        } catch (AccountException e) {
+            return e;
+        }
+    }
+
+    private Object useWithLock(String accountNumber) {
+        AccountLockHandle handle = lockService.lock(accountNumber);
+        try {
+            return transactionService.useBalance(userId, accountNumber, AMOUNT);
+        } finally {
+            lockService.unlock(handle);
+        }
+    }
+
+    private String pickAccount() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (workload == Workload.SKEWED && random.nextDouble() < hotRatio) {
+            return accountNumbers.get(0);
+        }
+        return accountNumbers.get(random.nextInt(ACCOUNT_COUNT));
+    }
+}
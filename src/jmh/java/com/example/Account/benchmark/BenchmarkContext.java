@@ -0,0 +1,95 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.AccountApplication;
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.service.generator.AccountNumberGenerator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.Account.type.AccountStatus.IN_USE;
+
+/**
+ * 벤치마크용 스프링 컨텍스트(H2 + embedded redis)를 띄우고 계좌 데이터를 준비한다.
+ */
+public final class BenchmarkContext {
+    public static final long INITIAL_BALANCE = Long.MAX_VALUE / 4;
+    private static final AtomicLong USER_ID_SEQUENCE = new AtomicLong(1_000_000L);
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * HTTP 부하 테스트용. 임의 포트로 Tomcat 을 띄운다 (localPort 로 조회).
+     */
+    public static ConfigurableApplicationContext startWebServer(String... properties) {
+        return start(WebApplicationType.SERVLET, properties);
+    }
+
+    public static int localPort(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                        String... properties) {
+        return new SpringApplicationBuilder(AccountApplication.class)
+                .web(webApplicationType)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * data.sql 이 고정 id(1~4)로 사용자를 넣기 때문에 시퀀스와 겹치지 않는 id 구간으로 직접 insert 한다.
+     */
+    public static AccountUser createUser(ConfigurableApplicationContext context, String name) {
+        long id = USER_ID_SEQUENCE.incrementAndGet();
+        context.getBean(JdbcTemplate.class).update(
+                "insert into account_user(id, name, created_at, updated_at) values (?, ?, now(), now())",
+                id, name);
+        return context.getBean(AccountUserRepository.class).findById(id)
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * 한 사용자 소유의 계좌를 count 개 만든다.
+     * 계좌 번호는 AccountNumberGenerator 로 발급받아 운영 채번(체크 디지트 포함)과 같은 형식이고 서로 겹치지 않는다.
+     */
+    public static List<String> createAccounts(ConfigurableApplicationContext context,
+                                              AccountUser accountUser, int count) {
+        AccountNumberGenerator accountNumberGenerator = context.getBean(AccountNumberGenerator.class);
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(Account.builder()
+                    .accountUser(accountUser)
+                    .accountStatus(IN_USE)
+                    .accountNumber(accountNumberGenerator.next())
+                    .balance(INITIAL_BALANCE)
+                    .registeredAt(LocalDateTime.now())
+                    .build());
+        }
+
+        List<String> accountNumbers = new ArrayList<>(count);
+        for (Account account : context.getBean(AccountRepository.class).saveAll(accounts)) {
+            accountNumbers.add(account.getAccountNumber());
+        }
+        return accountNumbers;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.AccountUser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 쏠림 상황의 HTTP 처리량 비교 (sync: 요청 스레드에서 lock 대기 / async: lock 대기 중 스레드 반납)
+ * - hotAccount : 한 계좌에 요청을 보내는 스레드 (lock 경합, 요청마다 holdMs 만큼 lock 을 잡고 있음)
+ * - coldAccounts : 나머지 계좌에 고르게 요청을 보내는 스레드
+ * Tomcat 스레드를 hot 요청 수보다 적게 두어, sync 모드에서 hot 계좌의 lock 대기가
+ * 다른 계좌 요청까지 막는지를 coldAccounts 처리량으로 확인한다.
+ * ./gradlew jmh -PjmhIncludes=ExecutionModeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExecutionModeBenchmark {
+    private static final int COLD_ACCOUNT_COUNT = 100;
+    private static final int TOMCAT_THREADS = 16;
+
+    @Param({"sync", "async"})
+    public String execution;
+
+    @Param({"20"})
+    public long holdMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI useUri;
+    private Long userId;
+    private List<String> accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startWebServer(
+                "account.transaction.execution=" + execution,
+                "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "server.tomcat.accept-count=1000",
+                "latency-injection.enabled=true",
+                "latency-injection.delays.useBalance=" + holdMs);
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        useUri = URI.create("http://localhost:" + BenchmarkContext.localPort(context)
+                + "/transaction/use");
+
+        AccountUser user = BenchmarkContext.createUser(context, "benchmark");
+        userId = user.getId();
+        accountNumbers = BenchmarkContext.createAccounts(context, user, COLD_ACCOUNT_COUNT + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("skewed")
+    @GroupThreads(32)
+    public String hotAccount() throws IOException, InterruptedException {
+        return use(accountNumbers.get(0));
+    }
+
+    @Benchmark
+    @Group("skewed")
+    @GroupThreads(8)
+    public String coldAccounts() throws IOException, InterruptedException {
+        return use(accountNumbers.get(
+                1 + ThreadLocalRandom.current().nextInt(COLD_ACCOUNT_COUNT)));
+    }
+
+    // lock 획득 실패(ACCOUNT_TRANSACTION_LOCK) 응답도 처리량에 포함된다.
+    private String use(String accountNumber) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(useUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                        "{\"userId\":%d,\"accountNumber\":\"%s\",\"amount\":100}",
+                        userId, accountNumber)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
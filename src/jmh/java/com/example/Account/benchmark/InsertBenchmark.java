@@ -0,0 +1,80 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 거래 기록 insert 처리량 (초당 insert 수)
+ * - allocationSize : 시퀀스 블록 크기 (1 이면 insert 마다 시퀀스 조회)
+ * - batchSize : hibernate.jdbc.batch_size (0 이면 batch 미사용)
+ * 한 번의 호출에서 ROWS 건을 한 트랜잭션으로 저장한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsertBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    @Param({"0", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private TransactionIdGenerator transactionIdGenerator;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "account.id.allocation-size=" + allocationSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+
+        AccountUser user = BenchmarkContext.createUser(context, "benchmark");
+        String accountNumber = BenchmarkContext.createAccounts(context, user, 1).get(0);
+        account = context.getBean(AccountRepository.class)
+                .findByAccountNumber(accountNumber)
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Transaction> insertTransactions() {
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .account(account)
+                    .amount(10L)
+                    .balanceSnapshot(1000L)
+                    .transactionId(transactionIdGenerator.generate())
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+        }
+        return transactionRepository.saveAll(transactions);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.AccountUser;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 번호 / 거래 id 단건 조회 지연 측정 (account_number, transaction_id 인덱스)
+ * rowCount 만큼의 계좌와 거래를 H2 에 직접 insert 한 뒤 임의의 키로 조회한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class LookupBenchmark {
+    // 애플리케이션이 발급하는 id 와 겹치지 않는 구간
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    @Param({"1000000", "10000000"})
+    public long rowCount;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        AccountUser user = BenchmarkContext.createUser(context, "benchmark");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into account (id, account_user_id, account_number, " +
+                        "account_status, balance, registered_at, version, created_at, updated_at) " +
+                        "select ? + x, ?, '8' || lpad(cast(x as varchar), 9, '0'), " +
+                        "'IN_USE', 1000, now(), 0, now(), now() from system_range(1, ?)",
+                ID_OFFSET, user.getId(), rowCount);
+        jdbcTemplate.update("insert into transaction (id, account_id, transaction_type, " +
+                        "transaction_result_type, amount, balance_snapshot, transaction_id, " +
+                        "transacted_at, created_at, updated_at) " +
+                        "select ? + x, ? + x, 'USE', 'S', 10, 1000, 'bench' || x, " +
+                        "now(), now(), now() from system_range(1, ?)",
+                ID_OFFSET, ID_OFFSET, rowCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findByAccountNumber() {
+        return accountRepository.findByAccountNumber(
+                "8" + String.format("%09d", randomKey()));
+    }
+
+    @Benchmark
+    public boolean existsAccountByAccountNumber() {
+        return accountRepository.existsAccountByAccountNumber(
+                "8" + String.format("%09d", randomKey()));
+    }
+
+    @Benchmark
+    public Object findByTransactionId() {
+        return transactionRepository.findByTransactionId("bench" + randomKey());
+    }
+
+    private long randomKey() {
+        return ThreadLocalRandom.current().nextLong(1, rowCount + 1);
+    }
+}
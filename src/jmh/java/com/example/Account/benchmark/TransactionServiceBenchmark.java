@@ -0,0 +1,130 @@
+package com.example.Account.benchmark;
+
+import com.example.Account.domain.AccountUser;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import com.example.Account.service.lock.AccountLockHandle;
+import com.example.Account.service.lock.LockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * TransactionService 의 잔액 사용/취소/조회 비용 측정
+ * - accountCount : 대상 계좌 수
+ * - contention : SAME(한 계좌에 몰림) / SPREAD(계좌에 고르게 분산)
+ * - locked : LockService 로 계좌 lock 을 잡고 호출할지 여부 (@AccountLock 경로와 동일)
+ * 스레드 수는 -PjmhThreads 로 지정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionServiceBenchmark {
+    private static final long AMOUNT = 100L;
+    private static final int SEEDED_TRANSACTIONS = 1_000;
+
+    public enum Contention {
+        SAME, SPREAD
+    }
+
+    @Param({"1", "100"})
+    public int accountCount;
+
+    @Param({"SAME", "SPREAD"})
+    public Contention contention;
+
+    @Param({"false", "true"})
+    public boolean locked;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private Long userId;
+    private List<String> accountNumbers;
+    private List<String> transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+
+        AccountUser user = BenchmarkContext.createUser(context, "benchmark");
+        userId = user.getId();
+        accountNumbers = BenchmarkContext.createAccounts(context, user, accountCount);
+
+        transactionIds = new ArrayList<>(SEEDED_TRANSACTIONS);
+        for (int i = 0; i < SEEDED_TRANSACTIONS; i++) {
+            transactionIds.add(transactionService.useBalance(userId,
+                    accountNumbers.get(i % accountCount), AMOUNT).getTransactionId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class PendingUse {
+        String accountNumber;
+        String transactionId;
+
+        @Setup(Level.Invocation)
+        public void use(TransactionServiceBenchmark benchmark) {
+            accountNumber = benchmark.pickAccount();
+            transactionId = benchmark.transactionService.useBalance(
+                    benchmark.userId, accountNumber, AMOUNT).getTransactionId();
+        }
+    }
+
+    @Benchmark
+    public Object useBalance() {
+        String accountNumber = pickAccount();
+        return call(accountNumber, () ->
+                transactionService.useBalance(userId, accountNumber, AMOUNT));
+    }
+
+    @Benchmark
+    public Object cancelBalance(PendingUse pendingUse) {
+        return call(pendingUse.accountNumber, () ->
+                transactionService.cancelBalance(pendingUse.transactionId,
+                        pendingUse.accountNumber, AMOUNT));
+    }
+
+    @Benchmark
+    public Object queryTransaction() {
+        return transactionService.queryTransaction(transactionIds.get(
+                ThreadLocalRandom.current().nextInt(transactionIds.size())));
+    }
+
+    String pickAccount() {
+        if (contention == Contention.SAME) {
+            return accountNumbers.get(0);
+        }
+        return accountNumbers.get(ThreadLocalRandom.current().nextInt(accountCount));
+    }
+
+    // lock 획득 실패(ACCOUNT_TRANSACTION_LOCK)도 결과로 소비하고 측정은 계속한다.
+    private Object call(String accountNumber, Supplier<Object> supplier) {
+        if (!locked) {
+            return supplier.get();
+        }
+        AccountLockHandle handle;
+        try {
+            handle = lockService.lock(accountNumber);
+        } catch (AccountException e) {
+            return e;
+        }
+        try {
+            return supplier.get();
+        } finally {
+            lockService.unlock(handle);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.Account.aop;
 
+import com.example.Account.type.LockPolicy;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,6 +9,14 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
+    // lock 대상 계좌 번호 SpEL (예: "#request.accountNumber"), 비워두면 AccountLockIdInterface 인자 사용
+    String key() default "";
+
+    // lock 취득 대기 시간(ms), policy 가 WAIT 일 때만 사용
     long tryLocTime() default 5000L;
 
+    // lock 유지 시간(ms), -1 이면 작업이 끝날 때까지 watchdog 이 연장
+    long leaseTime() default -1L;
+
+    LockPolicy policy() default LockPolicy.WAIT;
 }
@@ -0,0 +1,14 @@
+package com.example.Account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더가 있으면 같은 계좌, 같은 키의 재요청에 저장해 둔 첫 응답(또는 거래 검증 오류)을 돌려준다. (IdempotencyAspect)
+ * 계좌 lock 보다 먼저 적용되므로 재요청은 lock 과 DB 를 거치지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+}
@@ -0,0 +1,13 @@
+package com.example.Account.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시 크기, TTL 은 spring.cache.caffeine.spec 으로 설정
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+    public static final String ACCOUNT_USER_CACHE = "accountUser";
+}
@@ -0,0 +1,39 @@
+package com.example.Account.config;
+
+import com.example.Account.domain.PooledSequenceGenerator;
+import com.example.Account.service.ledger.TransactionSequence;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * PooledSequenceGenerator 는 Hibernate 가 만들기 때문에 빈을 주입받을 수 없다.
+ * account.id.allocation-size 를 Hibernate 설정으로 넘겨 생성기가 읽게 한다.
+ * JDBC 로 거래 기록을 저장하는 쪽(TransactionSequence)도 같은 블록 크기와 DB 에 맞는 시퀀스 조회 SQL 을 사용한다.
+ */
+@Configuration
+public class JpaIdGeneratorConfiguration {
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+            @Value("${account.id.allocation-size:50}") int allocationSize) {
+        return hibernateProperties -> hibernateProperties.put(
+                PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+    }
+
+    @Bean
+    public TransactionSequence transactionSequence(
+            JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${account.id.allocation-size:50}") int allocationSize) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return new TransactionSequence(jdbcTemplate,
+                dialect.getSequenceNextValString(TransactionSequence.SEQUENCE_NAME), allocationSize);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.Account.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+@Configuration
+@EnableRetry
+public class RetryConfiguration {
+
+}
@@ -0,0 +1,25 @@
+package com.example.Account.config;
+
+import com.example.Account.metrics.AccountMetrics;
+import com.example.Account.metrics.TimedJpaTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Spring Boot 의 기본 JpaTransactionManager 대신 커밋 시간을 기록하는 TimedJpaTransactionManager 를 등록
+ * spring.transaction.* 설정은 기본 설정과 같이 적용된다.
+ */
+@Configuration
+public class TransactionManagerConfiguration {
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            AccountMetrics accountMetrics,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        TimedJpaTransactionManager transactionManager = new TimedJpaTransactionManager(accountMetrics);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.Account.controller;
+
+import com.example.Account.aop.Idempotent;
+import com.example.Account.dto.CancelBalance;
+import com.example.Account.dto.QueryTransactionResponse;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.service.TransactionExecutor;
+import com.example.Account.service.TransactionService;
+import com.example.Account.service.lock.AsyncAccountLockExecutor;
+import com.example.Account.service.lock.LockOptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 관련 컨트롤러 (account.transaction.execution=async)
+ * TransactionController 와 같은 API 를 제공하고, 잔액 사용/취소는 CompletableFuture 로 응답해서
+ * lock 을 기다리는 동안 Tomcat 스레드를 반납한다.
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ * 3. 거래 확인
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.transaction.execution", havingValue = "async")
+public class AsyncTransactionController {
+    // TransactionController 의 @AccountLock 설정과 같음
+    private static final LockOptions USE_LOCK = LockOptions.of(
+            TransactionController.USE_LOCK_WAIT_MS, LockOptions.WATCHDOG_LEASE_TIME);
+    private static final LockOptions CANCEL_LOCK = LockOptions.of(
+            0L, LockOptions.WATCHDOG_LEASE_TIME);
+
+    private final TransactionService transactionService;
+    private final TransactionExecutor transactionExecutor;
+    private final AsyncAccountLockExecutor asyncAccountLockExecutor;
+
+    @PostMapping("/transaction/use")
+    @Idempotent
+    public CompletableFuture<UseBalance.Response> useBalance(
+            @Valid @RequestBody UseBalance.Request request
+    ) {
+        return asyncAccountLockExecutor.execute("useBalance", request.getAccountNumber(), USE_LOCK,
+                () -> UseBalance.Response.from(
+                        transactionExecutor.useBalance(request.getUserId(),
+                                request.getAccountNumber(), request.getAmount())
+                ));
+    }
+
+    @PostMapping("/transaction/cancel")
+    @Idempotent
+    public CompletableFuture<CancelBalance.Response> cancelBalance(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return asyncAccountLockExecutor.execute("cancelBalance", request.getAccountNumber(), CANCEL_LOCK,
+                () -> CancelBalance.Response.from(
+                        transactionExecutor.cancelBalance(request.getTransactionId(),
+                                request.getAccountNumber(), request.getAmount())
+                ));
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public QueryTransactionResponse queryTransaction(
+            @PathVariable String transactionId) {
+        return QueryTransactionResponse.from(transactionService.queryTransaction(transactionId)
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.Account.controller;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.service.BatchTransactionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 잔액 사용/취소 일괄 처리 컨트롤러
+ * 건별 결과를 처리되는 즉시 JSON 배열의 원소로 내려보낸다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BatchTransactionController {
+    private final BatchTransactionService batchTransactionService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<StreamingResponseBody> processBatch(
+            @Valid @RequestBody BatchTransaction.Request request
+    ) {
+        batchTransactionService.validate(request);
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.createGenerator(outputStream);
+            generator.writeStartArray();
+            batchTransactionService.process(request.getItems(), response -> {
+                try {
+                    generator.writeObject(response);
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.Account.controller;
 
 import com.example.Account.aop.AccountLock;
+import com.example.Account.aop.Idempotent;
 import com.example.Account.dto.CancelBalance;
 import com.example.Account.dto.QueryTransactionResponse;
 import com.example.Account.dto.UseBalance;
-import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionExecutor;
 import com.example.Account.service.TransactionService;
+import com.example.Account.type.LockPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -21,56 +24,40 @@ import javax.validation.Valid;
 @Slf4j
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.transaction.execution", havingValue = "sync", matchIfMissing = true)
 public class TransactionController {
+    // 잔액 사용은 lock 을 잠깐 기다리고, 취소는 기다리지 않고 바로 실패 (AsyncTransactionController 와 공유)
+    static final long USE_LOCK_WAIT_MS = 1000L;
+
     private final TransactionService transactionService;
+    private final TransactionExecutor transactionExecutor;
 
     @PostMapping("/transaction/use")
-    @AccountLock
+    @Idempotent
+    @AccountLock(key = "#request.accountNumber", tryLocTime = USE_LOCK_WAIT_MS)
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
-    ) throws InterruptedException {
-        try {
-            Thread.sleep(5000L);
-            return UseBalance.Response.from(
-                    transactionService.useBalance(request.getUserId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-
-            throw e;
-        }
+    ) {
+        return UseBalance.Response.from(
+                transactionExecutor.useBalance(request.getUserId(),
+                        request.getAccountNumber(), request.getAmount())
+        );
     }
 
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @Idempotent
+    @AccountLock(key = "#request.accountNumber", policy = LockPolicy.FAIL_FAST)
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
-        try {
-            return CancelBalance.Response.from(
-                    transactionService.cancelBalance(request.getTransactionId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Failed to use balance.");
-
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-
-            throw e;
-        }
+        return CancelBalance.Response.from(
+                transactionExecutor.cancelBalance(request.getTransactionId(),
+                        request.getAccountNumber(), request.getAmount())
+        );
     }
 
+    // 조회는 lock 을 잡지 않음. 커밋된 거래만 읽으므로 잔액 사용/취소와 경합하지 않는다.
     @GetMapping("/transaction/{transactionId}")
-    @AccountLock
     public QueryTransactionResponse queryTransaction(
             @PathVariable String transactionId) {
         return QueryTransactionResponse.from(transactionService.queryTransaction(transactionId)
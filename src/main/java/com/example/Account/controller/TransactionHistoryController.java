@@ -0,0 +1,60 @@
+package com.example.Account.controller;
+
+import com.example.Account.service.TransactionHistoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 거래 내역 컨트롤러
+ * size 를 주면 한 페이지, 주지 않으면 전체 내역을 JSON 배열로 스트리밍한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class TransactionHistoryController {
+    private final TransactionHistoryService transactionHistoryService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/account/{accountNumber}/transactions")
+    public ResponseEntity<StreamingResponseBody> getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterTransactedAt,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer size
+    ) {
+        transactionHistoryService.validateCursor(afterTransactedAt, afterId, size);
+        Long accountId = transactionHistoryService.getAccountId(accountNumber);
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.createGenerator(outputStream);
+            generator.writeStartArray();
+            transactionHistoryService.streamHistory(accountId,
+                    afterTransactedAt, afterId, size, item -> {
+                        try {
+                            generator.writeObject(item);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            generator.writeEndArray();
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -3,6 +3,8 @@ package com.example.Account.domain;
 import com.example.Account.exception.AccountException;
 import com.example.Account.type.AccountStatus;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -16,12 +18,18 @@ import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_account_account_number", columnList = "accountNumber", unique = true)
+})
 public class Account extends BaseEntity {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", strategy = "com.example.Account.domain.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "account_seq"))
     private Long id;
 
-    @ManyToOne
+    // 대부분의 경우 소유주 id 만 필요하므로 지연 로딩 (프록시의 id 조회는 쿼리가 나가지 않음)
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
 
     private String accountNumber;
@@ -35,6 +43,10 @@ public class Account extends BaseEntity {
 
     private LocalDateTime unRegisteredAt;
 
+    // 낙관적 lock: 잔액 변경 시 version 이 다르면 update 실패
+    @Version
+    private Long version;
+
     // 중요한 로직은 entity 안에 작성하기
     public void useBalance(Long amount) {
         if (amount > balance) {
@@ -3,6 +3,8 @@ package com.example.Account.domain;
 import com.example.Account.type.TransactionResultType;
 import com.example.Account.type.TransactionType;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -13,9 +15,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+// columnList 는 엔티티의 논리 컬럼명으로 쓴다. (account 연관관계는 @JoinColumn 으로 선언한 account_id)
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id", columnList = "transactionId", unique = true),
+        // 계좌별 거래 내역 keyset 페이징용. account_id 단독 조회도 이 인덱스를 사용
+        @Index(name = "ix_transaction_account_history", columnList = "account_id, transactedAt, id"),
+        // 원거래 하나에 취소 거래는 한 건만 저장됨
+        @Index(name = "ux_transaction_original_transaction_id", columnList = "originalTransactionId", unique = true)
+})
 public class Transaction extends BaseEntity {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "transaction_seq")
+    @GenericGenerator(name = "transaction_seq", strategy = "com.example.Account.domain.PooledSequenceGenerator",
+            parameters = @Parameter(name = "sequence_name", value = "transaction_seq"))
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -23,11 +35,19 @@ public class Transaction extends BaseEntity {
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    // 계좌 정보가 필요한 조회는 TransactionRepository 의 fetch 메소드 사용
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
     private Account account;
     private Long amount;
     private Long balanceSnapshot;
 
     private String transactionId;
     private LocalDateTime transactedAt;
+
+    // 취소 거래가 가리키는 원거래 id
+    private String originalTransactionId;
+    // 원거래의 취소 여부. 중복 취소 검증을 거래 내역 조회 없이 원거래 한 건으로 처리
+    @Column(columnDefinition = "boolean default false not null")
+    private boolean canceled;
 }
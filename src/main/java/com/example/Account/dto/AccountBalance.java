@@ -0,0 +1,10 @@
+package com.example.Account.dto;
+
+/**
+ * 잔액 갱신 후 거래 기록에 필요한 값만 조회하는 projection
+ */
+public interface AccountBalance {
+    Long getId();
+
+    Long getBalance();
+}
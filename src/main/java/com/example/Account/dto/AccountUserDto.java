@@ -0,0 +1,20 @@
+package com.example.Account.dto;
+
+import com.example.Account.domain.AccountUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 캐시에 두는 사용자 정보
+ * 엔티티를 캐시하면 영속성 컨텍스트 밖에서 공유되므로, 검증에 필요한 값만 복사해서 둔다.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountUserDto {
+    private final Long id;
+    private final String name;
+
+    public static AccountUserDto fromEntity(AccountUser accountUser) {
+        return new AccountUserDto(accountUser.getId(), accountUser.getName());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Account.dto;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import com.example.Account.type.TransactionResultType;
+import com.example.Account.type.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotEmpty;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.Account.type.TransactionResultType.F;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+public class BatchTransaction {
+
+    /**
+     * {
+     *     "items": [
+     *         {"use": {"userId": 1, "accountNumber": "1000000000", "amount": 1000}},
+     *         {"cancel": {"transactionId": "skdhfkhk25hdksjfh", "accountNumber": "1000000000", "amount": 1000}}
+     *     ]
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Valid
+        private List<Item> items;
+    }
+
+    // use, cancel 중 하나만 채워야 함
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @Valid
+        private UseBalance.Request use;
+
+        @Valid
+        private CancelBalance.Request cancel;
+
+        @JsonIgnore
+        @AssertTrue
+        public boolean isSingleOperation() {
+            return (use == null) != (cancel == null);
+        }
+
+        @JsonIgnore
+        public TransactionType getTransactionType() {
+            return use != null ? USE : CANCEL;
+        }
+
+        @JsonIgnore
+        public String getAccountNumber() {
+            return use != null ? use.getAccountNumber() : cancel.getAccountNumber();
+        }
+
+        @JsonIgnore
+        public Long getAmount() {
+            return use != null ? use.getAmount() : cancel.getAmount();
+        }
+    }
+
+    /**
+     * 건별 결과. index 는 요청 items 의 순서이며, 결과는 계좌별로 묶여서 처리된 순서대로 내려간다.
+     * {
+     *     "index": 0,
+     *     "transactionType": "USE",
+     *     "transactionResult": "S",
+     *     "accountNumber": "1000000000",
+     *     "transactionId": "dsfjsldf",
+     *     "amount": 1000,
+     *     "transactedAt": "2023-01-01T00:00:00"
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private int index;
+        private TransactionType transactionType;
+        private TransactionResultType transactionResult;
+        private String accountNumber;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Response success(int index, TransactionDto transactionDto) {
+            return Response.builder()
+                    .index(index)
+                    .transactionType(transactionDto.getTransactionType())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+
+        public static Response failure(int index, Item item, AccountException e) {
+            return Response.builder()
+                    .index(index)
+                    .transactionType(item.getTransactionType())
+                    .transactionResult(F)
+                    .accountNumber(item.getAccountNumber())
+                    .amount(item.getAmount())
+                    .errorCode(e.getErrorCode())
+                    .errorMessage(e.getErrorMessage())
+                    .build();
+        }
+    }
+}
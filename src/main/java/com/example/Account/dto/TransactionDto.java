@@ -22,8 +22,13 @@ public class TransactionDto {
     private LocalDateTime transactedAt;
 
     public static TransactionDto fromEntity(Transaction transaction) {
+        return fromEntity(transaction, transaction.getAccount().getAccountNumber());
+    }
+
+    // 계좌 엔티티를 조회하지 않은 경우(account 가 프록시) 계좌 번호를 직접 넘긴다.
+    public static TransactionDto fromEntity(Transaction transaction, String accountNumber) {
         return TransactionDto.builder()
-                .accountNumber(transaction.getAccount().getAccountNumber())
+                .accountNumber(accountNumber)
                 .transactionType(transaction.getTransactionType())
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
@@ -0,0 +1,38 @@
+package com.example.Account.dto;
+
+import com.example.Account.type.TransactionResultType;
+import com.example.Account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+public class TransactionHistory {
+
+    /**
+     * 다음 페이지는 마지막으로 받은 건의 transactedAt, id 를
+     * afterTransactedAt, afterId 로 넘겨서 조회한다.
+     * {
+     *     "id": 1,
+     *     "transactionType": "USE",
+     *     "transactionResultType": "S",
+     *     "amount": 1000,
+     *     "balanceSnapshot": 9000,
+     *     "transactionId": "dsfjsldf",
+     *     "transactedAt": "2023-01-01T00:00:00"
+     * }
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private Long id;
+        private TransactionType transactionType;
+        private TransactionResultType transactionResultType;
+        private Long amount;
+        private Long balanceSnapshot;
+        private String transactionId;
+        private LocalDateTime transactedAt;
+    }
+}
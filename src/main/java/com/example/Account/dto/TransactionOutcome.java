@@ -0,0 +1,28 @@
+package com.example.Account.dto;
+
+import com.example.Account.exception.AccountException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 여러 건을 한 번에 처리할 때 건별 결과 (성공한 거래 또는 실패 원인)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TransactionOutcome {
+    private final TransactionDto transactionDto;
+    private final AccountException exception;
+
+    public static TransactionOutcome success(TransactionDto transactionDto) {
+        return new TransactionOutcome(transactionDto, null);
+    }
+
+    public static TransactionOutcome failure(AccountException exception) {
+        return new TransactionOutcome(null, exception);
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.Account.exception;
 
 import com.example.Account.dto.ErrorResponse;
+import com.example.Account.metrics.AccountMetrics;
+import com.example.Account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,11 +16,15 @@ import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    // 컨트롤러 슬라이스 테스트 등 지표 bean 이 없는 경우 집계하지 않음
+    private final ObjectProvider<AccountMetrics> accountMetricsProvider;
 
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
         log.error("{} is occurred.", e.getErrorCode());
+        countError(e.getErrorCode());
 
         return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
     }
@@ -24,6 +32,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ErrorResponse handleMethodArgumentNotValidException(MethodArgumentNotValidException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
+        countError(INVALID_REQUEST);
 
         return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
@@ -31,6 +40,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
+        countError(INVALID_REQUEST);
 
         return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
@@ -38,8 +48,14 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occurred.", e);
+        countError(INTERNAL_SERER_ERROR);
 
         return new ErrorResponse(INTERNAL_SERER_ERROR,
                 INTERNAL_SERER_ERROR.getDescription());
     }
+
+    private void countError(ErrorCode errorCode) {
+        accountMetricsProvider.ifAvailable(
+                accountMetrics -> accountMetrics.countError(errorCode));
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.Account.metrics;
+
+import com.example.Account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 lock / 거래 처리 지표 (/actuator/prometheus 로 노출)
+ * - account.lock.wait : lock 취득까지 걸린 시간 (result=acquired|failed)
+ * - account.lock.hold : lock 을 잡고 있던 시간 (endpoint)
+ * - account.lock.acquisition.failures : lock 취득 실패 수 (ACCOUNT_TRANSACTION_LOCK)
+ * - account.endpoint.service : lock 안에서의 처리 시간, 비즈니스 로직 + DB 커밋 (endpoint, result=S|F)
+ * - account.db.commit : 트랜잭션 커밋(flush + commit) 시간 (transaction=클래스.메소드, result=committed|failed)
+ * - account.errors : ErrorCode 별 오류 응답 수
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public void recordLockWait(long nanos, boolean acquired) {
+        Timer.builder("account.lock.wait")
+                .tag("result", acquired ? "acquired" : "failed")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            Counter.builder("account.lock.acquisition.failures")
+                    .tag("errorCode", ErrorCode.ACCOUNT_TRANSACTION_LOCK.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    public void recordLockHold(String endpoint, long nanos) {
+        Timer.builder("account.lock.hold")
+                .tag("endpoint", String.valueOf(endpoint))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordServiceTime(String endpoint, boolean success, long nanos) {
+        Timer.builder("account.endpoint.service")
+                .tag("endpoint", String.valueOf(endpoint))
+                .tag("result", success ? "S" : "F")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCommitTime(String transaction, boolean committed, long nanos) {
+        Timer.builder("account.db.commit")
+                .tag("transaction", String.valueOf(transaction))
+                .tag("result", committed ? "committed" : "failed")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countError(ErrorCode errorCode) {
+        Counter.builder("account.errors")
+                .tag("errorCode", errorCode.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
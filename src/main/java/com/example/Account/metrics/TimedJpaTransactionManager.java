@@ -0,0 +1,42 @@
+package com.example.Account.metrics;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 커밋에 걸린 시간을 account.db.commit 으로 기록하는 JpaTransactionManager
+ * JPA 의 변경 내용은 커밋 시점에 flush 되므로 insert/update 실행과 DB commit 이 모두 포함된다.
+ * account.endpoint.service(lock 안에서의 처리 시간)와 비교해서 DB 대기와 로직 처리 시간을 나눠 본다.
+ */
+public class TimedJpaTransactionManager extends JpaTransactionManager {
+    private final AccountMetrics accountMetrics;
+
+    public TimedJpaTransactionManager(AccountMetrics accountMetrics) {
+        this.accountMetrics = accountMetrics;
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        String transaction = transactionName();
+        long startedAt = System.nanoTime();
+        boolean committed = false;
+        try {
+            super.doCommit(status);
+            committed = true;
+        } finally {
+            accountMetrics.recordCommitTime(transaction, committed, System.nanoTime() - startedAt);
+        }
+    }
+
+    // @Transactional 메소드는 "패키지.클래스.메소드" 이름을 가지므로 클래스.메소드만 남긴다.
+    private static String transactionName() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (name == null) {
+            return "unnamed";
+        }
+        int methodStart = name.lastIndexOf('.');
+        int classStart = methodStart > 0 ? name.lastIndexOf('.', methodStart - 1) : -1;
+        return name.substring(classStart + 1);
+    }
+}
@@ -2,7 +2,11 @@ package com.example.Account.repository;
 
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
+import com.example.Account.dto.AccountBalance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -27,4 +31,31 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByAccountUser(AccountUser accountUser);
 
     boolean existsAccountByAccountNumber(String accountNumber);
+
+    // 계좌 번호 채번 블록 번호 (schema.sql 의 account_number_seq)
+    @Query(value = "select next value for account_number_seq", nativeQuery = true)
+    Long nextAccountNumberBlock();
+
+    // 소유주, 계좌 상태, 잔액 검증과 차감을 update 한 번으로 처리. 조건을 만족하지 않으면 0 반환
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber and a.accountUser.id = :userId " +
+            "and a.balance >= :amount " +
+            "and a.accountStatus = com.example.Account.type.AccountStatus.IN_USE")
+    int debit(@Param("accountNumber") String accountNumber,
+              @Param("userId") Long userId,
+              @Param("amount") Long amount);
+
+    // 원거래 계좌와 요청 계좌가 같을 때만 복원. 조건을 만족하지 않으면 0 반환
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "where a.id = :accountId and a.accountNumber = :accountNumber")
+    int credit(@Param("accountId") Long accountId,
+               @Param("accountNumber") String accountNumber,
+               @Param("amount") Long amount);
+
+    @Query("select a.id as id, a.balance as balance from Account a " +
+            "where a.accountNumber = :accountNumber")
+    Optional<AccountBalance> findBalanceByAccountNumber(
+            @Param("accountNumber") String accountNumber);
 }
@@ -1,9 +1,74 @@
 package com.example.Account.repository;
 
 import com.example.Account.domain.AccountUser;
+import com.example.Account.dto.AccountUserDto;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.Account.config.CacheConfiguration.ACCOUNT_USER_CACHE;
+
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
+    // 사용자 정보는 거의 바뀌지 않으므로 요청마다 조회하지 않고 캐시에서 가져온다. 없는 사용자는 캐시하지 않음
+    // 엔티티가 필요한 곳(계좌의 소유주 등)은 getReferenceById 로 조회 없이 참조를 만든다.
+    @Cacheable(cacheNames = ACCOUNT_USER_CACHE, key = "#p0", unless = "#result == null")
+    @Query("select new com.example.Account.dto.AccountUserDto(u.id, u.name) " +
+            "from AccountUser u where u.id = :id")
+    Optional<AccountUserDto> findDtoById(@Param("id") Long id);
+
+    // 저장/삭제 메소드는 모두 캐시를 비운다. 여러 건을 다루는 메소드는 캐시 전체를 비움
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    <S extends AccountUser> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    <S extends AccountUser> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    <S extends AccountUser> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    <S extends AccountUser> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, key = "#p0")
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    void delete(AccountUser entity);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends AccountUser> entities);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAllInBatch(Iterable<AccountUser> entities);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    void deleteAllInBatch();
 }
@@ -1,12 +1,27 @@
 package com.example.Account.repository;
 
 import com.example.Account.domain.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {//<활용할 엔티티, pk 데이터 타입>
+    // 취소 검증용: 계좌는 id 만 비교하므로 조인하지 않음
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    // 거래 조회 응답용: 계좌 번호가 필요하므로 계좌까지 한 번에 조회
+    @EntityGraph(attributePaths = "account")
+    Optional<Transaction> findWithAccountByTransactionId(String transactionId);
+
+    // 원거래를 취소 상태로 바꿈. 이미 취소된 거래면 0 반환
+    @Modifying
+    @Query("update Transaction t set t.canceled = true " +
+            "where t.transactionId = :transactionId and t.canceled = false")
+    int markCanceled(@Param("transactionId") String transactionId);
 }
@@ -3,17 +3,20 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountUserDto;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.service.engine.BalanceEngine;
+import com.example.Account.service.generator.AccountNumberGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
 import java.util.stream.Collectors;
 
 import static com.example.Account.dto.AccountDto.fromEntity;
@@ -26,10 +29,11 @@ import static com.example.Account.type.ErrorCode.*;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final ObjectProvider<BalanceEngine> balanceEngineProvider;
 
     /*
-     * 가장 최근에 생성된 계좌의 번호를 조회하여,
-     * 그 번호에 1을 더하여 새로운 계좌 번호를 생성.  만약 조회된 계좌가 없을 경우 기본적으로 "1000000000"으로 설정.
+     * AccountNumberGenerator 가 미리 할당받은 블록에서 새로운 계좌 번호를 발급.
      * 계좌를 저장하고, 그 정보를 넘긴다.
      */
 
@@ -46,7 +50,7 @@ public class AccountService {
 
         validateCreateAccount(accountUser);
 
-        String newAccountNumber = createAccountNums();
+        String newAccountNumber = accountNumberGenerator.next();
 
         return fromEntity(
                 accountRepository.save(Account.builder()
@@ -61,12 +65,13 @@ public class AccountService {
 
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
-        AccountUser accountUser = getAccountUser(userId);
+        AccountUserDto accountUser = getAccountUserDto(userId);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
         validateDeleteAccount(accountUser, account);
+        closeAccount(account);
 
         account.setAccountStatus(UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
@@ -89,8 +94,13 @@ public class AccountService {
     }
 
 
+    // 사용자 존재 여부는 캐시로 확인하고, 계좌와의 연관관계에 필요한 엔티티는 조회 없이 참조로 만든다.
     private AccountUser getAccountUser(Long userId) {
-        return accountUserRepository.findById(userId)
+        return accountUserRepository.getReferenceById(getAccountUserDto(userId).getId());
+    }
+
+    private AccountUserDto getAccountUserDto(Long userId) {
+        return accountUserRepository.findDtoById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
     }
 
@@ -100,21 +110,7 @@ public class AccountService {
         }
     }
 
-    private String createAccountNums() {
-        Random random = new Random();
-        String accountNums = "";
-        do {
-            for (int i = 0; i < 10; i++) {
-                accountNums += String.valueOf(random.nextInt(9));
-            }
-
-            System.out.println(accountNums);
-        } while (accountRepository.existsAccountByAccountNumber(accountNums));
-
-        return accountNums;
-    }
-
-    private void validateDeleteAccount(AccountUser accountUser, Account account) {
+    private void validateDeleteAccount(AccountUserDto accountUser, Account account) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
             throw new AccountException(USER_ACCOUNT_UN_MATCH);
         }
@@ -122,6 +118,15 @@ public class AccountService {
         if (account.getAccountStatus() == UNREGISTERED) {
             throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
         }
+    }
+
+    // account.transaction.engine 이 설정된 경우 잔액 확인과 해지 표시를 엔진에 맡긴다. (DB 잔액이 최신이 아닐 수 있음)
+    private void closeAccount(Account account) {
+        BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+        if (balanceEngine != null) {
+            balanceEngine.closeAccount(account);
+            return;
+        }
 
         if (account.getBalance() > 0) {
             throw new AccountException(BALANCE_NOT_EMPTY);
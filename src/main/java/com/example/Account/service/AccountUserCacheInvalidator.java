@@ -0,0 +1,21 @@
+package com.example.Account.service;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Component;
+
+import static com.example.Account.config.CacheConfiguration.ACCOUNT_USER_CACHE;
+
+/**
+ * 애플리케이션을 거치지 않고 사용자 정보가 바뀐 경우(운영 DB 수정 등) 캐시를 직접 비운다.
+ * 애플리케이션 안에서의 저장/삭제는 AccountUserRepository 에서 자동으로 비운다.
+ */
+@Component
+public class AccountUserCacheInvalidator {
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, key = "#userId")
+    public void evict(Long userId) {
+    }
+
+    @CacheEvict(cacheNames = ACCOUNT_USER_CACHE, allEntries = true)
+    public void evictAll() {
+    }
+}
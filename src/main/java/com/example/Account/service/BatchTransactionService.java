@@ -0,0 +1,121 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.CancelBalance;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
+import com.example.Account.service.lock.AccountLockHandle;
+import com.example.Account.service.lock.LockService;
+import com.example.Account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static com.example.Account.type.ErrorCode.BATCH_SIZE_EXCEEDED;
+
+/**
+ * 여러 건의 잔액 사용/취소를 한 번에 처리
+ * 요청을 계좌별로 묶어 계좌마다 lock 을 한 번만 잡고, 요청 순서대로 처리한다.
+ * 계좌 하나의 결과는 lock 을 푼 뒤에 resultConsumer 로 내보낸다.
+ * 건별 처리는 컨트롤러와 같은 TransactionExecutor 를 사용한다. (엔진 선택, 실패 거래 기록)
+ * 건별 실패는 해당 건의 결과로 남기고 나머지는 계속 처리한다.
+ * AccountException 이 아닌 오류는 INTERNAL_SERER_ERROR 결과로 남긴다.
+ */
+@Slf4j
+@Service
+public class BatchTransactionService {
+    private final TransactionExecutor transactionExecutor;
+    private final LockService lockService;
+    private final AccountMetrics accountMetrics;
+    private final int maxBatchSize;
+
+    public BatchTransactionService(
+            TransactionExecutor transactionExecutor,
+            LockService lockService,
+            AccountMetrics accountMetrics,
+            @Value("${account.transaction.batch.max-size:1000}") int maxBatchSize) {
+        this.transactionExecutor = transactionExecutor;
+        this.lockService = lockService;
+        this.accountMetrics = accountMetrics;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void validate(BatchTransaction.Request request) {
+        if (request.getItems().size() > maxBatchSize) {
+            throw new AccountException(BATCH_SIZE_EXCEEDED);
+        }
+    }
+
+    public void process(List<BatchTransaction.Item> items,
+                        Consumer<BatchTransaction.Response> resultConsumer) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexesByAccount.computeIfAbsent(items.get(i).getAccountNumber(),
+                    accountNumber -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : indexesByAccount.entrySet()) {
+            processAccount(entry.getKey(), entry.getValue(), items, resultConsumer);
+        }
+    }
+
+    private void processAccount(String accountNumber, List<Integer> indexes,
+                                List<BatchTransaction.Item> items,
+                                Consumer<BatchTransaction.Response> resultConsumer) {
+        AccountLockHandle handle;
+        try {
+            handle = lockService.lock(accountNumber);
+        } catch (AccountException e) {
+            for (Integer index : indexes) {
+                accountMetrics.countError(e.getErrorCode());
+                resultConsumer.accept(
+                        BatchTransaction.Response.failure(index, items.get(index), e));
+            }
+            return;
+        }
+
+        // 응답 쓰기(네트워크)가 느려도 lock 을 오래 잡지 않도록 결과는 lock 을 푼 뒤에 내보낸다.
+        List<BatchTransaction.Response> responses = new ArrayList<>(indexes.size());
+        try {
+            for (Integer index : indexes) {
+                responses.add(processItem(index, items.get(index)));
+            }
+        } finally {
+            lockService.unlock(handle);
+        }
+        responses.forEach(resultConsumer);
+    }
+
+    private BatchTransaction.Response processItem(int index, BatchTransaction.Item item) {
+        try {
+            if (item.getUse() != null) {
+                UseBalance.Request use = item.getUse();
+                return BatchTransaction.Response.success(index,
+                        transactionExecutor.useBalance(use.getUserId(),
+                                use.getAccountNumber(), use.getAmount()));
+            }
+
+            CancelBalance.Request cancel = item.getCancel();
+            return BatchTransaction.Response.success(index,
+                    transactionExecutor.cancelBalance(cancel.getTransactionId(),
+                            cancel.getAccountNumber(), cancel.getAmount()));
+        } catch (AccountException e) {
+            log.error("Failed to process batch item {}.", index);
+            accountMetrics.countError(e.getErrorCode());
+            return BatchTransaction.Response.failure(index, item, e);
+        } catch (RuntimeException e) {
+            // 응답 배열이 중간에 끊기지 않도록 예상하지 못한 오류도 건별 결과로 내려보낸다.
+            log.error("Unexpected failure of batch item {}.", index, e);
+            AccountException error = new AccountException(ErrorCode.INTERNAL_SERER_ERROR);
+            accountMetrics.countError(error.getErrorCode());
+            return BatchTransaction.Response.failure(index, item, error);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.engine.BalanceEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import static com.example.Account.type.ErrorCode.TRANSACTION_RESULT_TIMEOUT;
+
+/**
+ * 잔액 사용/취소 실행 (TransactionController, AsyncTransactionController, BatchTransactionService 공통)
+ * account.transaction.engine 이 설정된 경우 해당 실행 방식으로 처리하고, 설정하지 않으면 TransactionService 를 직접 호출한다.
+ * 거래가 거절되면(AccountException) 실패 거래를 남기고 예외를 그대로 던진다.
+ * TRANSACTION_RESULT_TIMEOUT 은 엔진이 나중에 성공으로 커밋할 수 있으므로 실패 거래를 남기지 않는다.
+ * 계좌 lock 은 호출하는 쪽에서 잡는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionExecutor {
+    private final TransactionService transactionService;
+    private final ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        try {
+            BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+            if (balanceEngine != null) {
+                return balanceEngine.useBalance(userId, accountNumber, amount);
+            }
+            return transactionService.useBalance(userId, accountNumber, amount);
+        } catch (AccountException e) {
+            log.error("Failed to use balance.");
+
+            if (!isOutcomeUnknown(e)) {
+                transactionService.saveFailedUseTransaction(accountNumber, amount);
+            }
+
+            throw e;
+        }
+    }
+
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        try {
+            BalanceEngine balanceEngine = balanceEngineProvider.getIfAvailable();
+            if (balanceEngine != null) {
+                return balanceEngine.cancelBalance(transactionId, accountNumber, amount);
+            }
+            return transactionService.cancelBalance(transactionId, accountNumber, amount);
+        } catch (AccountException e) {
+            log.error("Failed to cancel balance.");
+
+            if (!isOutcomeUnknown(e)) {
+                transactionService.saveFailedCancelTransaction(accountNumber, amount);
+            }
+
+            throw e;
+        }
+    }
+
+    private static boolean isOutcomeUnknown(AccountException e) {
+        return e.getErrorCode() == TRANSACTION_RESULT_TIMEOUT;
+    }
+}
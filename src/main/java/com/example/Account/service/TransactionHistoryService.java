@@ -0,0 +1,107 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.AccountBalance;
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.type.TransactionResultType;
+import com.example.Account.type.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 계좌별 거래 내역 조회
+ * (account_id, transacted_at, id) 인덱스를 타는 keyset 페이징으로 조회하고,
+ * 결과를 리스트로 모으지 않고 fetch size 단위로 읽으면서 한 건씩 넘긴다.
+ */
+@Service
+public class TransactionHistoryService {
+    private static final String SELECT_SQL =
+            "select t.id, t.transaction_type, t.transaction_result_type, t.amount, " +
+                    "t.balance_snapshot, t.transaction_id, t.transacted_at " +
+                    "from transaction t where t.account_id = ? ";
+    private static final String AFTER_CURSOR_SQL =
+            "and (t.transacted_at > ? or (t.transacted_at = ? and t.id > ?)) ";
+    private static final String ORDER_SQL = "order by t.transacted_at, t.id";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionHistoryService(
+            AccountRepository accountRepository,
+            DataSource dataSource,
+            @Value("${account.transaction.history.fetch-size:500}") int fetchSize) {
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // 계좌 확인은 응답을 쓰기 시작하기 전에 해야 오류 응답을 내려줄 수 있음
+    public Long getAccountId(String accountNumber) {
+        return accountRepository.findBalanceByAccountNumber(accountNumber)
+                .map(AccountBalance::getId)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    }
+
+    public void validateCursor(LocalDateTime afterTransactedAt, Long afterId, Integer size) {
+        if ((afterTransactedAt == null) != (afterId == null)) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        if (size != null && size <= 0) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+    }
+
+    /**
+     * afterTransactedAt, afterId 가 없으면 처음부터, size 가 없으면 끝까지 조회
+     */
+    public void streamHistory(Long accountId,
+                              LocalDateTime afterTransactedAt, Long afterId,
+                              Integer size,
+                              Consumer<TransactionHistory.Item> itemConsumer) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(accountId);
+        if (afterTransactedAt != null) {
+            sql.append(AFTER_CURSOR_SQL);
+            args.add(afterTransactedAt);
+            args.add(afterTransactedAt);
+            args.add(afterId);
+        }
+        sql.append(ORDER_SQL);
+        if (size != null) {
+            sql.append(" fetch first ? rows only");
+            args.add(size);
+        }
+
+        jdbcTemplate.query(sql.toString(),
+                (RowCallbackHandler) rs -> itemConsumer.accept(toItem(rs)),
+                args.toArray());
+    }
+
+    private static TransactionHistory.Item toItem(ResultSet rs) throws SQLException {
+        return TransactionHistory.Item.builder()
+                .id(rs.getLong("id"))
+                .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+                .transactionResultType(
+                        TransactionResultType.valueOf(rs.getString("transaction_result_type")))
+                .amount(rs.getLong("amount"))
+                .balanceSnapshot(rs.getObject("balance_snapshot", Long.class))
+                .transactionId(rs.getString("transaction_id"))
+                .transactedAt(rs.getObject("transacted_at", LocalDateTime.class))
+                .build();
+    }
+}
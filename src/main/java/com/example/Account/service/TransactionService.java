@@ -1,27 +1,38 @@
 package com.example.Account.service;
 
 import com.example.Account.domain.Account;
-import com.example.Account.domain.AccountUser;
 import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountBalance;
+import com.example.Account.dto.AccountUserDto;
 import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionOutcome;
+import com.example.Account.dto.UseBalance;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
 import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.FailedTransactionWriter;
 import com.example.Account.type.AccountStatus;
+import com.example.Account.type.BalanceUpdateMode;
 import com.example.Account.type.ErrorCode;
 import com.example.Account.type.TransactionResultType;
 import com.example.Account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
-import static com.example.Account.type.TransactionResultType.F;
 import static com.example.Account.type.TransactionResultType.S;
 import static com.example.Account.type.TransactionType.CANCEL;
 import static com.example.Account.type.TransactionType.USE;
@@ -33,16 +44,33 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final FailedTransactionWriter failedTransactionWriter;
+
+    @Value("${account.transaction.balance-update:ENTITY}")
+    private BalanceUpdateMode balanceUpdateMode;
 
     /**
      * 사용자가 없는 경우, 계좌가 없는 경우, 사용자 아이디와 계좌 소유주가 다른 경우,
      * 계좌가 이미 해지 상태인 경우, 거래 금액이 잔액보다 큰 경우,
      * 거래 금액이 너무 작거나 큰 경우 실패 응답
+     * 다른 요청이 먼저 잔액을 바꿔 version 충돌이 나면 트랜잭션 전체를 다시 시도
+     * 다시 시도해도 충돌하면 ACCOUNT_CONCURRENT_UPDATE 실패 응답 (recoverUseBalance)
      */
+    @Retryable(
+            value = OptimisticLockingFailureException.class,
+            recover = "recoverUseBalance",
+            maxAttemptsExpression = "${account.optimistic-lock.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${account.optimistic-lock.backoff-ms:10}")
+    )
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber,
                                      Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
+        if (balanceUpdateMode == BalanceUpdateMode.ATOMIC) {
+            return atomicUseBalance(userId, accountNumber, amount);
+        }
+
+        AccountUserDto user = accountUserRepository.findDtoById(userId)
                 .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -55,20 +83,100 @@ public class TransactionService {
         return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
     }
 
+    /**
+     * 같은 계좌의 잔액 사용 요청 여러 건을 도착 순서대로 한 트랜잭션에서 처리 (그룹 커밋)
+     * 건별 검증 실패는 해당 건의 결과로만 남기고 나머지는 계속 처리한다.
+     */
+    @Retryable(
+            value = OptimisticLockingFailureException.class,
+            recover = "recoverUseBalanceInGroup",
+            maxAttemptsExpression = "${account.optimistic-lock.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${account.optimistic-lock.backoff-ms:10}")
+    )
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    public List<TransactionOutcome> useBalanceInGroup(String accountNumber,
+                                                      List<UseBalance.Request> requests) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+                .orElse(null);
+
+        List<TransactionOutcome> outcomes = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                AccountUserDto user = accountUserRepository.findDtoById(request.getUserId())
+                        .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+                if (account == null) {
+                    throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+                }
+
+                validateUseBalance(user, account, request.getAmount());
 
-        saveAndGetTransaction(USE, F, account, amount);
+                account.useBalance(request.getAmount());
+
+                outcomes.add(TransactionOutcome.success(TransactionDto.fromEntity(
+                        saveAndGetTransaction(USE, S, account, request.getAmount()))));
+            } catch (AccountException e) {
+                outcomes.add(TransactionOutcome.failure(e));
+            }
+        }
+        return outcomes;
+    }
+
+    // version 충돌로 재시도를 모두 소진한 경우. 컨트롤러가 AccountException 으로 받아 실패 거래를 기록한다.
+    @Recover
+    public TransactionDto recoverUseBalance(OptimisticLockingFailureException e,
+                                            Long userId, String accountNumber, Long amount) {
+        log.warn("Optimistic lock retries exhausted. accountNumber : {}", accountNumber);
+        throw new AccountException(ErrorCode.ACCOUNT_CONCURRENT_UPDATE);
     }
 
+    // 그룹 전체가 롤백되었으므로 모든 건을 실패로 반환
+    @Recover
+    public List<TransactionOutcome> recoverUseBalanceInGroup(OptimisticLockingFailureException e,
+                                                             String accountNumber,
+                                                             List<UseBalance.Request> requests) {
+        log.warn("Optimistic lock retries exhausted. accountNumber : {}", accountNumber);
+        List<TransactionOutcome> outcomes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            outcomes.add(TransactionOutcome.failure(
+                    new AccountException(ErrorCode.ACCOUNT_CONCURRENT_UPDATE)));
+        }
+        return outcomes;
+    }
+
+    @Recover
+    public TransactionDto recoverCancelBalance(OptimisticLockingFailureException e,
+                                               String transactionId, String accountNumber,
+                                               Long amount) {
+        log.warn("Optimistic lock retries exhausted. accountNumber : {}", accountNumber);
+        throw new AccountException(ErrorCode.ACCOUNT_CONCURRENT_UPDATE);
+    }
+
+    // 실패 기록은 큐에 넣고 바로 반환 (FailedTransactionWriter 가 모아서 저장)
+    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+        failedTransactionWriter.write(USE, accountNumber, amount);
+    }
+
+    /**
+     * 원거래가 없는 경우, 계좌가 없는 경우, 원거래 계좌와 계좌가 다른 경우,
+     * 부분 취소인 경우, 1년이 지난 거래인 경우, 이미 취소된 거래인 경우 실패 응답
+     * 중복 취소는 원거래의 취소 여부를 조건부 update 로 바꿔서 막고, 취소 거래의 원거래 id unique 인덱스가 마지막으로 막는다.
+     */
+    @Retryable(
+            value = OptimisticLockingFailureException.class,
+            recover = "recoverCancelBalance",
+            maxAttemptsExpression = "${account.optimistic-lock.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${account.optimistic-lock.backoff-ms:10}")
+    )
     @Transactional
     public TransactionDto cancelBalance(
             String transactionId,
             String accountNumber,
             Long amount
     ) {
+        if (balanceUpdateMode == BalanceUpdateMode.ATOMIC) {
+            return atomicCancelBalance(transactionId, accountNumber, amount);
+        }
+
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
                 .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
 
@@ -77,45 +185,114 @@ public class TransactionService {
 
         validateCancelBalance(transaction, account, amount);
 
+        markCanceled(transactionId);
         account.cancelBalance(amount);
 
-        return TransactionDto.fromEntity(
-                saveAndGetTransaction(CANCEL, S, account, amount)
-        );
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                CANCEL, S, account, account.getBalance(), amount, transactionId));
     }
 
-    @Transactional
     public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-
-        saveAndGetTransaction(CANCEL, F, account, amount);
+        failedTransactionWriter.write(CANCEL, accountNumber, amount);
     }
 
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
+        return TransactionDto.fromEntity(transactionRepository.findWithAccountByTransactionId(transactionId)
                 .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
         );
     }
 
+    /**
+     * 엔티티를 조회하지 않고 조건부 update 로 차감.
+     * update 가 실패한 경우에만 엔티티를 조회해서 실패 원인을 찾는다.
+     */
+    private TransactionDto atomicUseBalance(Long userId, String accountNumber, Long amount) {
+        if (accountRepository.debit(accountNumber, userId, amount) == 0) {
+            AccountUserDto user = accountUserRepository.findDtoById(userId)
+                    .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+            validateUseBalance(user, account, amount);
+            // 조회 시점에는 검증을 통과해도 update 시점에는 잔액이 부족했던 경우
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        return TransactionDto.fromEntity(
+                saveAndGetAtomicTransaction(USE, accountNumber, amount, null), accountNumber);
+    }
+
+    private TransactionDto atomicCancelBalance(
+            String transactionId, String accountNumber, Long amount) {
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+
+        validateCancelAmount(transaction, amount);
+
+        if (accountRepository.credit(
+                transaction.getAccount().getId(), accountNumber, amount) == 0) {
+            accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        // 예외로 트랜잭션이 롤백되므로 복원한 잔액도 되돌아간다.
+        markCanceled(transactionId);
+
+        return TransactionDto.fromEntity(saveAndGetAtomicTransaction(
+                CANCEL, accountNumber, amount, transactionId), accountNumber);
+    }
+
+    // update 직후 같은 트랜잭션에서 잔액만 다시 읽어 거래 기록의 잔액 스냅샷으로 사용
+    private Transaction saveAndGetAtomicTransaction(
+            TransactionType transactionType, String accountNumber, Long amount,
+            String originalTransactionId) {
+        AccountBalance accountBalance = accountRepository.findBalanceByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return saveAndGetTransaction(transactionType, S,
+                accountRepository.getReferenceById(accountBalance.getId()),
+                accountBalance.getBalance(), amount, originalTransactionId);
+    }
+
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account, Long amount) {
-        return transactionRepository.save(
+        return saveAndGetTransaction(transactionType, transactionResultType,
+                account, account.getBalance(), amount, null);
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account, Long balanceSnapshot, Long amount,
+            String originalTransactionId) {
+        Transaction transaction = transactionRepository.save(
                 Transaction.builder()
                         .transactionType(transactionType)
                         .transactionResultType(transactionResultType)
                         .account(account)
                         .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                        .balanceSnapshot(balanceSnapshot)
+                        .transactionId(transactionIdGenerator.generate())
                         .transactedAt(LocalDateTime.now())
+                        .originalTransactionId(originalTransactionId)
                         .build()
         );
+        return transaction;
     }
 
-    private void validateUseBalance(AccountUser user, Account account, Long amount) {
+    /**
+     * 조회 이후 다른 요청이 먼저 취소한 경우 TRANSACTION_ALREADY_CANCELED
+     * 조건부 update 라서 동시에 취소하면 원거래 행 lock 을 나중에 잡은 요청이 0 건으로 실패한다.
+     */
+    private void markCanceled(String transactionId) {
+        if (transactionRepository.markCanceled(transactionId) == 0) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
+    }
+
+    private void validateUseBalance(AccountUserDto user, Account account, Long amount) {
         if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
             throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
@@ -131,6 +308,13 @@ public class TransactionService {
         if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
         }
+        validateCancelAmount(transaction, amount);
+    }
+
+    private void validateCancelAmount(Transaction transaction, Long amount) {
+        if (transaction.isCanceled()) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
         if (!Objects.equals(transaction.getAmount(), amount)) {
             throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
         }
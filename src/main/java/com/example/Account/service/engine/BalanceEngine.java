@@ -0,0 +1,33 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+
+import static com.example.Account.type.ErrorCode.BALANCE_NOT_EMPTY;
+
+/**
+ * TransactionService 대신 잔액 사용/취소를 처리하는 실행 방식
+ * account.transaction.engine 설정으로 하나만 선택하며, 설정하지 않으면 TransactionService 를 직접 호출한다.
+ * - group-commit : 같은 계좌의 동시 사용 요청을 모아서 한 트랜잭션으로 커밋
+ * - sharded : 계좌 번호를 해시해서 계좌마다 정해진 단일 스레드(shard)에서만 잔액을 변경
+ * - redis : 잔액을 redis 에 두고 Lua 스크립트로 검증과 차감, 거래 기록과 잔액은 DB 에 모아서 반영
+ * - journal : 잔액을 메모리에 두고 로컬 저널 파일에 기록한 뒤 응답, 거래 기록과 잔액은 DB 에 비동기로 반영
+ */
+public interface BalanceEngine {
+    TransactionDto useBalance(Long userId, String accountNumber, Long amount);
+
+    TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount);
+
+    /**
+     * 계좌 해지 전 잔액 확인 (AccountService.deleteAccount)
+     * 잔액을 엔진 밖(redis, 메모리)에 두는 경우 그 잔액으로 확인하고, 이후 잔액 사용/취소를 받지 않도록 해지 상태로 바꾼다.
+     * 이 경우 호출한 DB 트랜잭션이 롤백되면 해지 상태를 되돌린다.
+     * 잔액을 DB 에서 바꾸는 엔진은 DB 잔액으로 확인한다.
+     */
+    default void closeAccount(Account account) {
+        if (account.getBalance() > 0) {
+            throw new AccountException(BALANCE_NOT_EMPTY);
+        }
+    }
+}
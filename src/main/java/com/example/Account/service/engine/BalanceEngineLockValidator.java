@@ -0,0 +1,22 @@
+package com.example.Account.service.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * account.transaction.engine 을 설정하면 계좌별 처리 순서는 엔진이 정하므로 계좌 lock 을 함께 쓰지 않는다.
+ * 요청마다 lock 을 잡으면 그룹 커밋은 요청을 모을 수 없고, 나머지 엔진도 lock 을 잡은 채 엔진 결과를 기다리게 되므로
+ * account.lock.provider=none 이 아니면 기동에 실패시킨다.
+ */
+@Component
+public class BalanceEngineLockValidator {
+    public BalanceEngineLockValidator(
+            @Value("${account.transaction.engine:}") String engine,
+            @Value("${account.lock.provider:redis}") String lockProvider) {
+        if (StringUtils.hasText(engine) && !"none".equals(lockProvider)) {
+            throw new IllegalStateException("account.transaction.engine=" + engine
+                    + " requires account.lock.provider=none but was " + lockProvider);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 잔액 변경 기록을 남기는 append-only 저널
+ * 고정 크기 파일(segment)을 memory-map 해서 뒤에 이어 쓰고, 다 차면 다음 파일로 넘어간다.
+ * 파일 이름은 그 파일의 첫 기록 번호 (journal-00000000000000000001.log)
+ * 기록 : [payload 길이 int][payload][crc32 int]
+ * payload : sequence, 거래 종류, accountId, amount, balanceSnapshot, transactionId, transactedAt, accountNumber,
+ * 원거래 id (사용 거래는 빈 문자열, 원거래 id 가 없던 이전 기록도 읽을 수 있음)
+ * 길이가 0 이거나 crc 가 맞지 않거나 번호가 이어지지 않는 곳을 기록의 끝으로 본다. (쓰다 만 기록은 버림)
+ * 쓰기는 모두 이 객체의 lock 안에서 한다.
+ */
+@Slf4j
+public class BalanceJournal implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES;
+    private static final int CRC_SIZE = Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastSequence;
+
+    public BalanceJournal(Path directory, int segmentSize, boolean forceOnAppend) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    /**
+     * 남아 있는 기록을 순서대로 replay 에 넘기고, 마지막 기록 뒤부터 이어 쓸 수 있게 연다.
+     */
+    public synchronized void open(Consumer<JournalRecord> replay) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = segments();
+            if (!segments.isEmpty()) {
+                // 앞쪽 파일이 지워졌어도 기록 번호는 이어서 붙인다.
+                lastSequence = firstSequenceOf(segments.get(0)) - 1;
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                FileChannel segmentChannel = FileChannel.open(segments.get(i),
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MappedByteBuffer segmentBuffer =
+                        segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+                readRecords(segmentBuffer, replay);
+                if (last) {
+                    channel = segmentChannel;
+                    buffer = segmentBuffer;
+                } else {
+                    segmentChannel.close();
+                }
+            }
+            if (buffer == null) {
+                roll();
+            }
+            log.info("Balance journal opened. directory : {}, lastSequence : {}",
+                    directory, lastSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 기록을 이어 쓰고 기록 번호를 붙여 afterAppend 에 넘긴다.
+     * afterAppend 도 lock 안에서 호출되므로, 기록 번호 순서대로 받아야 하는 작업(DB 반영 큐)은 여기서 처리한다.
+     */
+    public synchronized JournalRecord append(LedgerRecord ledgerRecord,
+                                             Consumer<JournalRecord> afterAppend) {
+        JournalRecord record = new JournalRecord(lastSequence + 1, ledgerRecord);
+        byte[] payload = encode(record);
+        if (buffer.remaining() < HEADER_SIZE + payload.length + CRC_SIZE) {
+            roll();
+        }
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        buffer.putInt(crc(payload));
+        if (forceOnAppend) {
+            buffer.force();
+        }
+        lastSequence = record.getSequence();
+        afterAppend.accept(record);
+        return record;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    /**
+     * 모든 기록이 sequence 이하인 segment 를 지운다. (쓰고 있는 segment 는 남김)
+     */
+    public synchronized void deleteSegmentsUpTo(long sequence) {
+        try {
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size() - 1; i++) {
+                if (firstSequenceOf(segments.get(i + 1)) - 1 > sequence) {
+                    break;
+                }
+                Files.delete(segments.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void readRecords(ByteBuffer segmentBuffer, Consumer<JournalRecord> replay) {
+        while (segmentBuffer.remaining() >= HEADER_SIZE + CRC_SIZE) {
+            int start = segmentBuffer.position();
+            int length = segmentBuffer.getInt();
+            if (length <= 0 || length > segmentBuffer.remaining() - CRC_SIZE) {
+                segmentBuffer.position(start);
+                return;
+            }
+            byte[] payload = new byte[length];
+            segmentBuffer.get(payload);
+            JournalRecord record = segmentBuffer.getInt() == crc(payload) ? decode(payload) : null;
+            if (record == null || record.getSequence() != lastSequence + 1) {
+                segmentBuffer.position(start);
+                return;
+            }
+            lastSequence = record.getSequence();
+            replay.accept(record);
+        }
+    }
+
+    private void roll() {
+        try {
+            if (channel != null) {
+                buffer.force();
+                channel.close();
+            }
+            Path segment = directory.resolve(
+                    String.format("%s%020d%s", SEGMENT_PREFIX, lastSequence + 1, SEGMENT_SUFFIX));
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(
+                SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(JournalRecord record) {
+        LedgerRecord ledgerRecord = record.getLedgerRecord();
+        byte[] transactionId = ledgerRecord.getTransactionId().getBytes(StandardCharsets.UTF_8);
+        byte[] transactedAt = ledgerRecord.getTransactedAt().toString().getBytes(StandardCharsets.UTF_8);
+        byte[] accountNumber = ledgerRecord.getAccountNumber().getBytes(StandardCharsets.UTF_8);
+        byte[] originalTransactionId = ledgerRecord.getOriginalTransactionId() == null
+                ? new byte[0]
+                : ledgerRecord.getOriginalTransactionId().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES * 4 + 1 + Short.BYTES * 4
+                + transactionId.length + transactedAt.length + accountNumber.length
+                + originalTransactionId.length);
+        payload.putLong(record.getSequence());
+        payload.put((byte) ledgerRecord.getTransactionType().ordinal());
+        payload.putLong(ledgerRecord.getAccountId());
+        payload.putLong(ledgerRecord.getAmount());
+        payload.putLong(ledgerRecord.getBalanceSnapshot());
+        putString(payload, transactionId);
+        putString(payload, transactedAt);
+        putString(payload, accountNumber);
+        putString(payload, originalTransactionId);
+        return payload.array();
+    }
+
+    private static JournalRecord decode(byte[] bytes) {
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        long sequence = payload.getLong();
+        TransactionType transactionType = TransactionType.values()[payload.get()];
+        long accountId = payload.getLong();
+        long amount = payload.getLong();
+        long balanceSnapshot = payload.getLong();
+        String transactionId = getString(payload);
+        LocalDateTime transactedAt = LocalDateTime.parse(getString(payload));
+        String accountNumber = getString(payload);
+        String originalTransactionId = payload.hasRemaining() ? getString(payload) : "";
+        return new JournalRecord(sequence, new LedgerRecord(transactionId, transactionType,
+                accountId, amount, balanceSnapshot, transactedAt, accountNumber,
+                originalTransactionId.isEmpty() ? null : originalTransactionId));
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] value = new byte[buffer.getShort()];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+final class EngineFutures {
+    private EngineFutures() {
+    }
+
+    /**
+     * 엔진 스레드에서 발생한 AccountException 등은 감싸지 않고 호출한 쪽으로 그대로 던진다.
+     * timeoutMs 안에 결과가 나오지 않으면 TRANSACTION_RESULT_TIMEOUT
+     * 엔진이 나중에 처리할 수도 있으므로 결과는 알 수 없다. (거래 내역으로 확인)
+     */
+    static TransactionDto await(CompletableFuture<TransactionDto> result, long timeoutMs) {
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new AccountException(ErrorCode.TRANSACTION_RESULT_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.TRANSACTION_RESULT_TIMEOUT);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.Account.service.engine;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+final class EngineTransactions {
+    private EngineTransactions() {
+    }
+
+    /**
+     * 엔진 밖(redis, 메모리)에 바로 반영한 변경을 호출한 DB 트랜잭션이 롤백되면 되돌린다.
+     * 진행 중인 트랜잭션이 없으면 아무 것도 하지 않는다.
+     */
+    static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionOutcome;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import com.example.Account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 그룹 커밋
+ * 같은 계좌로 들어온 잔액 사용 요청을 window-ms 동안 모아서 도착 순서대로 잔액을 검증/차감하고
+ * 한 트랜잭션으로 커밋한 뒤 요청별 결과(성공 거래 또는 AccountException)를 돌려준다.
+ * 한 계좌의 배치는 동시에 하나만 실행되고, 대기 요청이 없는 계좌의 큐는 지운다.
+ * 요청마다 계좌 lock 을 잡으면 모을 수 없으므로 account.lock.provider=none 과 함께 사용하고 (BalanceEngineLockValidator),
+ * 다른 경로(취소 등)와의 동시 수정은 Account.version 충돌과 재시도로 처리한다.
+ * 결과를 await-timeout-ms 안에 받지 못하면 TRANSACTION_RESULT_TIMEOUT, 종료 중에는 ACCOUNT_TRANSACTION_LOCK 으로 실패한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "group-commit")
+public class GroupCommitBalanceEngine implements BalanceEngine {
+    private final TransactionService transactionService;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final long awaitTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    public GroupCommitBalanceEngine(
+            TransactionService transactionService,
+            @Value("${account.transaction.group-commit.window-ms:2}") long windowMs,
+            @Value("${account.transaction.group-commit.max-batch-size:100}") int maxBatchSize,
+            @Value("${account.transaction.group-commit.threads:4}") int threads,
+            @Value("${account.transaction.await-timeout-ms:5000}") long awaitTimeoutMs) {
+        this.transactionService = transactionService;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        this.scheduler = Executors.newScheduledThreadPool(threads);
+    }
+
+    // 예약된 배치는 실행하고 기다린 뒤, 그래도 남은 요청은 실패시킨다.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        if (!scheduler.awaitTermination(awaitTimeoutMs, TimeUnit.MILLISECONDS)) {
+            scheduler.shutdownNow();
+        }
+        for (AccountQueue queue : queues.values()) {
+            failPending(queue);
+        }
+    }
+
+    @Override
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        PendingUse pendingUse = new PendingUse(
+                new UseBalance.Request(userId, accountNumber, amount));
+
+        // 큐 삭제(flush)와 같은 compute 로 추가해서 지워진 큐에 요청이 남지 않게 한다.
+        AccountQueue queue = queues.compute(accountNumber, (key, current) -> {
+            AccountQueue accountQueue = current != null ? current : new AccountQueue();
+            accountQueue.requests.add(pendingUse);
+            return accountQueue;
+        });
+        if (queue.scheduled.compareAndSet(false, true)) {
+            schedule(accountNumber, queue, windowMs);
+        }
+
+        return EngineFutures.await(pendingUse.result, awaitTimeoutMs);
+    }
+
+    @Override
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return transactionService.cancelBalance(transactionId, accountNumber, amount);
+    }
+
+    private void flush(String accountNumber, AccountQueue queue) {
+        List<PendingUse> batch = new ArrayList<>(maxBatchSize);
+        PendingUse pendingUse;
+        while (batch.size() < maxBatchSize && (pendingUse = queue.requests.poll()) != null) {
+            batch.add(pendingUse);
+        }
+
+        try {
+            commit(accountNumber, batch);
+        } finally {
+            queue.scheduled.set(false);
+            // 대기 요청이 없고 다른 배치가 예약되지 않았으면 큐를 지운다.
+            queues.computeIfPresent(accountNumber, (key, current) ->
+                    current == queue && current.requests.isEmpty() && !current.scheduled.get()
+                            ? null : current);
+            // 배치를 실행하는 동안 들어온 요청은 기다린 만큼 바로 다음 배치로 처리
+            if (!queue.requests.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+                schedule(accountNumber, queue, 0L);
+            }
+        }
+    }
+
+    // 종료된 뒤에는 예약할 수 없으므로 대기 중인 요청을 바로 실패시킨다.
+    private void schedule(String accountNumber, AccountQueue queue, long delayMs) {
+        try {
+            scheduler.schedule(() -> flush(accountNumber, queue), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            queue.scheduled.set(false);
+            failPending(queue);
+        }
+    }
+
+    private void failPending(AccountQueue queue) {
+        PendingUse pendingUse;
+        while ((pendingUse = queue.requests.poll()) != null) {
+            pendingUse.result.completeExceptionally(
+                    new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+    }
+
+    private void commit(String accountNumber, List<PendingUse> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<UseBalance.Request> requests = new ArrayList<>(batch.size());
+        for (PendingUse pendingUse : batch) {
+            requests.add(pendingUse.request);
+        }
+
+        try {
+            List<TransactionOutcome> outcomes =
+                    transactionService.useBalanceInGroup(accountNumber, requests);
+            for (int i = 0; i < batch.size(); i++) {
+                TransactionOutcome outcome = outcomes.get(i);
+                if (outcome.isSuccess()) {
+                    batch.get(i).result.complete(outcome.getTransactionDto());
+                } else {
+                    batch.get(i).result.completeExceptionally(outcome.getException());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Group commit failed for accountNumber : {}", accountNumber, e);
+            for (PendingUse pendingUse : batch) {
+                pendingUse.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static class AccountQueue {
+        private final Queue<PendingUse> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+
+    private static class PendingUse {
+        private final UseBalance.Request request;
+        private final CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+
+        private PendingUse(UseBalance.Request request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.engine.JournalCheckpoint.AccountState;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.AccountStatus;
+import com.example.Account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * 저널 모드
+ * 계좌 잔액을 메모리에 두고, 잔액을 바꿀 때마다 BalanceJournal 에 기록을 먼저 쓴 뒤 응답한다.
+ * 거래 기록과 계좌 잔액은 JournalLedgerWriter 가 DB 에 비동기로 저장한다.
+ * - 기동 시 checkpoint 의 계좌 잔액에서 시작해 저널의 이후 기록을 다시 적용하고, DB 에 저장되지 않은 기록은 다시 넘긴다.
+ * - checkpoint-interval-ms 마다 계좌 잔액을 checkpoint 로 남기고, checkpoint 와 DB 에 모두 반영된 저널 파일은 지운다.
+ * 같은 계좌의 검증, 저널 기록, 잔액 변경은 계좌 객체의 lock 안에서 처리하므로 계좌 lock 이 필요 없다.
+ * 계좌 해지도 메모리의 잔액으로 확인하고 메모리의 계좌 상태를 바꾼다. (closeAccount, DB 트랜잭션이 롤백되면 되돌림)
+ * 저널이 로컬 파일이므로 단일 인스턴스 전용이며, account.lock.provider=none 과 함께 사용한다.
+ * 일괄 처리도 이 엔진으로 처리되므로 DB 잔액을 직접 바꾸는 경로가 없다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "journal")
+public class JournalBalanceEngine implements BalanceEngine {
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final Path directory;
+    private final BalanceJournal journal;
+    private final JournalLedgerWriter ledgerWriter;
+    private final long checkpointIntervalMs;
+
+    private final ConcurrentMap<String, JournalAccount> accounts = new ConcurrentHashMap<>();
+    // 저널과 checkpoint 에서 복구했지만 아직 요청이 없어 DB 에서 읽지 않은 계좌의 잔액
+    private final ConcurrentMap<String, AccountState> recovered = new ConcurrentHashMap<>();
+    private ScheduledExecutorService checkpointScheduler;
+
+    public JournalBalanceEngine(
+            AccountUserRepository accountUserRepository,
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            TransactionIdGenerator transactionIdGenerator,
+            LedgerBatchWriter ledgerBatchWriter,
+            @Value("${account.transaction.journal.dir:./journal}") String directory,
+            @Value("${account.transaction.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${account.transaction.journal.force-on-append:false}") boolean forceOnAppend,
+            @Value("${account.transaction.journal.checkpoint-interval-ms:10000}") long checkpointIntervalMs,
+            @Value("${account.transaction.journal.batch-size:500}") int batchSize,
+            @Value("${account.transaction.journal.queue-capacity:100000}") int queueCapacity,
+            @Value("${account.transaction.journal.offer-timeout-ms:1000}") long offerTimeoutMs,
+            @Value("${account.transaction.journal.max-attempts:5}") int maxAttempts) {
+        this.accountUserRepository = accountUserRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.directory = Paths.get(directory);
+        this.journal = new BalanceJournal(this.directory, segmentSizeMb * 1024 * 1024, forceOnAppend);
+        this.ledgerWriter = new JournalLedgerWriter(ledgerBatchWriter, batchSize,
+                queueCapacity, offerTimeoutMs, maxAttempts, this.directory);
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        recover();
+        checkpointScheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "journal-checkpoint");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        checkpointScheduler.scheduleWithFixedDelay(this::checkpointSafely,
+                checkpointIntervalMs, checkpointIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        checkpointScheduler.shutdown();
+        checkpointScheduler.awaitTermination(10, TimeUnit.SECONDS);
+        ledgerWriter.stop();
+        checkpoint();
+        journal.close();
+    }
+
+    @Override
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        accountUserRepository.findDtoById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        JournalAccount account = accountOf(accountNumber);
+        ledgerWriter.awaitCapacity();
+        LedgerRecord record;
+        synchronized (account) {
+            if (!Objects.equals(userId, account.userId)) {
+                throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+            }
+            if (account.accountStatus != AccountStatus.IN_USE) {
+                throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            if (account.balance < amount) {
+                throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            }
+            record = new LedgerRecord(transactionIdGenerator.generate(), USE, account.accountId,
+                    amount, account.balance - amount, LocalDateTime.now(), accountNumber, null);
+            account.apply(journal.append(record, ledgerWriter::enqueue));
+        }
+        return toDto(record);
+    }
+
+    @Override
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        JournalAccount account = accountOf(accountNumber);
+        ledgerWriter.awaitCapacity();
+        LedgerRecord record;
+        synchronized (account) {
+            if (account.accountStatus != AccountStatus.IN_USE) {
+                throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            // 취소 기록은 DB 에 저장된 뒤에 대기 목록에서 빠지므로, lock 안에서 대기 목록 → DB 순서로 보면 중복 취소를 놓치지 않는다.
+            if (ledgerWriter.isCancelPending(transactionId)) {
+                throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+            }
+            Transaction transaction = findOriginal(transactionId);
+
+            validateCancelAmount(transaction, amount);
+            if (!Objects.equals(transaction.getAccount().getId(), account.accountId)) {
+                throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+            }
+            record = new LedgerRecord(transactionIdGenerator.generate(), CANCEL, account.accountId,
+                    amount, account.balance + amount, LocalDateTime.now(), accountNumber,
+                    transactionId);
+            account.apply(journal.append(record, ledgerWriter::enqueue));
+        }
+        return toDto(record);
+    }
+
+    // DB 잔액은 아직 저장되지 않은 기록만큼 다를 수 있으므로 메모리의 잔액으로 확인한다.
+    @Override
+    public void closeAccount(Account entity) {
+        JournalAccount account = accountOf(entity.getAccountNumber());
+        synchronized (account) {
+            if (account.accountStatus != AccountStatus.IN_USE) {
+                throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            }
+            if (account.balance > 0) {
+                throw new AccountException(ErrorCode.BALANCE_NOT_EMPTY);
+            }
+            account.accountStatus = AccountStatus.UNREGISTERED;
+        }
+        // 해지를 저장하는 DB 트랜잭션이 롤백되면(ledger writer 의 version 변경과 충돌 등) 계좌를 다시 쓸 수 있게 되돌린다.
+        EngineTransactions.afterRollback(() -> {
+            synchronized (account) {
+                account.accountStatus = AccountStatus.IN_USE;
+            }
+        });
+    }
+
+    void recover() {
+        JournalCheckpoint checkpoint = JournalCheckpoint.read(directory);
+        recovered.putAll(checkpoint.getAccounts());
+        journal.open(record -> {
+            LedgerRecord ledgerRecord = record.getLedgerRecord();
+            AccountState state = recovered.get(ledgerRecord.getAccountNumber());
+            if (state == null || record.getSequence() > state.getLastSequence()) {
+                recovered.put(ledgerRecord.getAccountNumber(),
+                        new AccountState(ledgerRecord.getBalanceSnapshot(), record.getSequence()));
+            }
+            if (record.getSequence() > checkpoint.getFlushedSequence()) {
+                ledgerWriter.enqueue(record);
+            }
+        });
+        ledgerWriter.start(checkpoint.getFlushedSequence());
+        log.info("Balance journal recovered. accounts : {}, lastSequence : {}",
+                recovered.size(), journal.lastSequence());
+    }
+
+    /**
+     * 저널 기록 번호를 먼저 읽고 계좌별 lock 안에서 잔액을 읽으므로,
+     * 그 번호까지의 기록은 모두 checkpoint 의 잔액에 반영되어 있다.
+     */
+    void checkpoint() {
+        long coveredSequence = journal.lastSequence();
+        long flushedSequence = ledgerWriter.flushedSequence();
+        Map<String, AccountState> states = new HashMap<>(recovered);
+        for (Map.Entry<String, JournalAccount> entry : accounts.entrySet()) {
+            JournalAccount account = entry.getValue();
+            synchronized (account) {
+                if (account.lastSequence > 0) {
+                    states.put(entry.getKey(),
+                            new AccountState(account.balance, account.lastSequence));
+                }
+            }
+        }
+        journal.force();
+        new JournalCheckpoint(coveredSequence, flushedSequence, states).write(directory);
+        journal.deleteSegmentsUpTo(Math.min(coveredSequence, flushedSequence));
+    }
+
+    private void checkpointSafely() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            log.error("Failed to write journal checkpoint", e);
+        }
+    }
+
+    // DB 에 아직 저장되지 않은 거래도 취소할 수 있도록 저장 대기 기록을 먼저 찾는다.
+    private Transaction findOriginal(String transactionId) {
+        return ledgerWriter.findPending(transactionId)
+                .map(LedgerRecord::toEntity)
+                .orElseGet(() -> transactionRepository.findByTransactionId(transactionId)
+                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+    }
+
+    private JournalAccount accountOf(String accountNumber) {
+        JournalAccount account = accounts.get(accountNumber);
+        if (account != null) {
+            return account;
+        }
+
+        Account entity = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        // DB 잔액보다 저널에서 복구한 잔액이 최신
+        AccountState state = recovered.get(accountNumber);
+        JournalAccount loaded = new JournalAccount(entity.getId(),
+                entity.getAccountUser().getId(), entity.getAccountStatus(),
+                state == null ? entity.getBalance() : state.getBalance(),
+                state == null ? 0L : state.getLastSequence());
+
+        JournalAccount existing = accounts.putIfAbsent(accountNumber, loaded);
+        return existing == null ? loaded : existing;
+    }
+
+    private TransactionDto toDto(LedgerRecord record) {
+        return TransactionDto.builder()
+                .accountNumber(record.getAccountNumber())
+                .transactionType(record.getTransactionType())
+                .transactionResultType(S)
+                .amount(record.getAmount())
+                .balanceSnapshot(record.getBalanceSnapshot())
+                .transactionId(record.getTransactionId())
+                .transactedAt(record.getTransactedAt())
+                .build();
+    }
+
+    private void validateCancelAmount(Transaction transaction, Long amount) {
+        if (transaction.isCanceled()) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+
+    // 메모리의 계좌 상태. 필드는 계좌 객체의 lock 안에서만 읽고 쓴다. (소유주는 바뀌지 않고, 해지와 해지 취소는 closeAccount 로만 함)
+    private static class JournalAccount {
+        private final Long accountId;
+        private final Long userId;
+        private AccountStatus accountStatus;
+        private long balance;
+        private long lastSequence;
+
+        private JournalAccount(Long accountId, Long userId, AccountStatus accountStatus,
+                               long balance, long lastSequence) {
+            this.accountId = accountId;
+            this.userId = userId;
+            this.accountStatus = accountStatus;
+            this.balance = balance;
+            this.lastSequence = lastSequence;
+        }
+
+        private void apply(JournalRecord record) {
+            balance = record.getLedgerRecord().getBalanceSnapshot();
+            lastSequence = record.getSequence();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Account.service.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 저널 checkpoint : 계좌별 잔액과 그 잔액에 반영된 마지막 기록 번호
+ * - coveredSequence : 이 번호까지의 기록은 모두 계좌 잔액에 반영되어 있음
+ * - flushedSequence : 이 번호까지의 기록은 DB 에 저장되어 있음
+ * 임시 파일에 쓰고 fsync 한 뒤 이름을 바꾸므로, 쓰다가 죽어도 이전 checkpoint 가 남는다.
+ */
+@Getter
+@AllArgsConstructor
+public class JournalCheckpoint {
+    private static final String FILE_NAME = "checkpoint";
+    private static final int VERSION = 1;
+
+    private final long coveredSequence;
+    private final long flushedSequence;
+    private final Map<String, AccountState> accounts;
+
+    public static JournalCheckpoint empty() {
+        return new JournalCheckpoint(0L, 0L, new HashMap<>());
+    }
+
+    public static JournalCheckpoint read(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != VERSION) {
+                throw new IllegalStateException("Unknown journal checkpoint version : " + file);
+            }
+            long coveredSequence = in.readLong();
+            long flushedSequence = in.readLong();
+            int count = in.readInt();
+            Map<String, AccountState> accounts = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                accounts.put(in.readUTF(), new AccountState(in.readLong(), in.readLong()));
+            }
+            return new JournalCheckpoint(coveredSequence, flushedSequence, accounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Path directory) {
+        Path temp = directory.resolve(FILE_NAME + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(VERSION);
+            out.writeLong(coveredSequence);
+            out.writeLong(flushedSequence);
+            out.writeInt(accounts.size());
+            for (Map.Entry<String, AccountState> entry : accounts.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().getBalance());
+                out.writeLong(entry.getValue().getLastSequence());
+            }
+            out.flush();
+            file.getFD().sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temp, directory.resolve(FILE_NAME),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class AccountState {
+        private final long balance;
+        private final long lastSequence;
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.service.ledger.LedgerRecord;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.TransactionType.CANCEL;
+
+/**
+ * 저널에 쓴 거래 기록을 비동기로 DB 에 저장한다.
+ * 기록 번호 순서대로 받아서 batch-size 건씩 저장하고, 저장에 실패하면 같은 batch 를 다시 시도한다.
+ * (저장 전에 죽어도 저널에 남아 있으므로 다음 기동 때 다시 넘겨받음)
+ * - max-attempts 번 실패한 batch 는 한 건씩 저장하고, 그래도 실패하거나 계좌가 없어서 저장할 수 없는 기록은
+ *   dead-letter 파일(저널 디렉토리의 dead-letter.log)에 남기고 오류 로그를 남긴 뒤 다음 기록으로 넘어간다.
+ * - 저장 대기 기록이 queue-capacity 건 이상이면 새 기록을 저널에 쓰기 전에 offer-timeout-ms 까지 기다리고,
+ *   그래도 자리가 없으면 ACCOUNT_TRANSACTION_LOCK 으로 실패시킨다. (awaitCapacity)
+ * DB 에 저장되기 전 거래도 취소할 수 있도록 저장 대기 중인 기록을 거래 id 로 찾을 수 있게 두고,
+ * 저장 대기 중인 취소 기록은 원거래 id 로 찾을 수 있게 둔다. (DB 에 저장되면 원거래의 취소 여부로 확인)
+ * dead-letter 로 넘긴 취소 기록은 DB 에 원거래의 취소 여부가 남지 않으므로, 원거래를 계속 취소된 것으로 막는다.
+ * 이 목록은 기동 시 dead-letter 파일에서 다시 읽으며, 운영자가 처리한 뒤 파일에서 해당 줄을 지우고 재기동하면 풀린다.
+ */
+@Slf4j
+public class JournalLedgerWriter {
+    private static final long RETRY_DELAY_MS = 1000L;
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+
+    private final LedgerBatchWriter ledgerBatchWriter;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final Path deadLetterFile;
+    private final BlockingQueue<JournalRecord> queue = new LinkedBlockingQueue<>();
+    private final Map<String, LedgerRecord> pending = new ConcurrentHashMap<>();
+    // 원거래 id → 저장 대기 중인 취소 기록
+    private final Map<String, LedgerRecord> pendingCancels = new ConcurrentHashMap<>();
+    // dead-letter 로 넘긴 취소 기록의 원거래 id
+    private final Set<String> deadLetteredCancels = ConcurrentHashMap.newKeySet();
+    private final Object capacity = new Object();
+
+    private volatile long flushedSequence;
+    private volatile boolean running;
+    private Thread worker;
+
+    public JournalLedgerWriter(LedgerBatchWriter ledgerBatchWriter, int batchSize,
+                               int queueCapacity, long offerTimeoutMs, int maxAttempts,
+                               Path directory) {
+        this.ledgerBatchWriter = ledgerBatchWriter;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.deadLetterFile = directory.resolve(DEAD_LETTER_FILE);
+    }
+
+    public void start(long flushedSequence) {
+        loadDeadLetteredCancels();
+        this.flushedSequence = flushedSequence;
+        running = true;
+        worker = new Thread(this::run, "journal-ledger-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    /**
+     * 저장 대기 기록이 queue-capacity 미만이 될 때까지 기다린다. (저널에 쓰기 전에 호출)
+     * 이미 저널에 쓴 기록은 enqueue 에서 거절할 수 없으므로 여기서 요청을 늦추거나 실패시킨다.
+     */
+    public void awaitCapacity() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        synchronized (capacity) {
+            while (pending.size() >= queueCapacity) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.error("Journal ledger writer is behind. pending : {}", pending.size());
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(capacity, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                }
+            }
+        }
+    }
+
+    // 기록 번호 순서대로 호출해야 한다. (BalanceJournal.append 의 afterAppend)
+    public void enqueue(JournalRecord record) {
+        LedgerRecord ledgerRecord = record.getLedgerRecord();
+        pending.put(ledgerRecord.getTransactionId(), ledgerRecord);
+        if (ledgerRecord.getOriginalTransactionId() != null) {
+            pendingCancels.put(ledgerRecord.getOriginalTransactionId(), ledgerRecord);
+        }
+        queue.add(record);
+    }
+
+    public Optional<LedgerRecord> findPending(String transactionId) {
+        return Optional.ofNullable(pending.get(transactionId));
+    }
+
+    public boolean isCancelPending(String originalTransactionId) {
+        return pendingCancels.containsKey(originalTransactionId)
+                || deadLetteredCancels.contains(originalTransactionId);
+    }
+
+    // 이 번호까지의 기록은 DB 에 저장됨 (dead-letter 로 넘긴 기록 포함)
+    public long flushedSequence() {
+        return flushedSequence;
+    }
+
+    // 큐에 남은 기록을 호출한 스레드에서 모두 저장
+    public void flush() {
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        List<JournalRecord> batch = new ArrayList<>(batchSize);
+        int attempts = 0;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                if (attempts < maxAttempts) {
+                    write(batch);
+                } else {
+                    writeEach(batch);
+                }
+                batch.clear();
+                attempts = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // 순서를 지키기 위해 같은 batch 를 다시 시도
+                attempts++;
+                log.error("Failed to write {} journal records. attempt : {}", batch.size(), attempts, e);
+                if (attempts >= maxAttempts) {
+                    continue;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(List<JournalRecord> batch) {
+        List<LedgerRecord> records = toLedgerRecords(batch);
+        List<LedgerRecord> rejected = ledgerBatchWriter.write(records);
+        if (!rejected.isEmpty()) {
+            deadLetter(rejected, "account not found");
+        }
+        markWritten(records, batch.get(batch.size() - 1).getSequence());
+    }
+
+    // 계속 실패하는 batch 는 한 건씩 저장해서 실패하는 기록만 dead-letter 로 넘긴다.
+    private void writeEach(List<JournalRecord> batch) {
+        for (JournalRecord record : batch) {
+            try {
+                write(Collections.singletonList(record));
+            } catch (UncheckedIOException e) {
+                throw e;
+            } catch (Exception e) {
+                log.error("Failed to write journal record {}.", record.getSequence(), e);
+                deadLetter(Collections.singletonList(record.getLedgerRecord()), e.toString());
+                markWritten(Collections.singletonList(record.getLedgerRecord()), record.getSequence());
+            }
+        }
+    }
+
+    private void markWritten(List<LedgerRecord> records, long lastSequence) {
+        // 커밋한 뒤에 지워야 취소 요청이 대기 기록과 DB 중 한 곳에서는 원거래를 찾는다.
+        for (LedgerRecord record : records) {
+            pending.remove(record.getTransactionId());
+            if (record.getOriginalTransactionId() != null) {
+                pendingCancels.remove(record.getOriginalTransactionId());
+            }
+        }
+        flushedSequence = lastSequence;
+        synchronized (capacity) {
+            capacity.notifyAll();
+        }
+    }
+
+    // dead-letter 파일에 남기지 못하면 기록을 잃지 않도록 예외를 던져 같은 기록을 다시 시도하게 한다.
+    private void deadLetter(List<LedgerRecord> records, String reason) {
+        log.error("{} journal records cannot be written to the ledger ({}). Moved to {} : {}",
+                records.size(), reason, deadLetterFile, records.stream()
+                        .map(LedgerRecord::getTransactionId)
+                        .collect(Collectors.toList()));
+        List<String> lines = records.stream()
+                .map(record -> String.join("|", record.getTransactionId(),
+                        record.getTransactionType().name(), String.valueOf(record.getAccountId()),
+                        String.valueOf(record.getAmount()), String.valueOf(record.getBalanceSnapshot()),
+                        record.getTransactedAt().toString(), record.getAccountNumber(),
+                        Objects.toString(record.getOriginalTransactionId(), ""), reason))
+                .collect(Collectors.toList());
+        try {
+            Files.write(deadLetterFile, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // 대기 목록에서 빠지기 전에(markWritten) 추가해서 원거래가 취소 가능해 보이는 순간이 없게 한다.
+        for (LedgerRecord record : records) {
+            if (record.getOriginalTransactionId() != null) {
+                deadLetteredCancels.add(record.getOriginalTransactionId());
+            }
+        }
+    }
+
+    // transactionId|transactionType|accountId|amount|balanceSnapshot|transactedAt|accountNumber|originalTransactionId|reason
+    private void loadDeadLetteredCancels() {
+        if (!Files.exists(deadLetterFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(deadLetterFile, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\\|", -1);
+                if (fields.length > 7 && CANCEL.name().equals(fields[1]) && !fields[7].isEmpty()) {
+                    deadLetteredCancels.add(fields[7]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!deadLetteredCancels.isEmpty()) {
+            log.warn("{} transactions are blocked by dead-lettered cancels in {}.",
+                    deadLetteredCancels.size(), deadLetterFile);
+        }
+    }
+
+    private static List<LedgerRecord> toLedgerRecords(List<JournalRecord> batch) {
+        List<LedgerRecord> records = new ArrayList<>(batch.size());
+        for (JournalRecord record : batch) {
+            records.add(record.getLedgerRecord());
+        }
+        return records;
+    }
+}
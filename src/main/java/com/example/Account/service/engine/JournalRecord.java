@@ -0,0 +1,15 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.service.ledger.LedgerRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 저널에 쓴 순서대로 번호(sequence)를 붙인 거래 기록
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+    private final long sequence;
+    private final LedgerRecord ledgerRecord;
+}
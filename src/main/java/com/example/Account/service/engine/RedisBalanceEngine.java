@@ -0,0 +1,138 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.ErrorCode;
+import com.example.Account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+
+/**
+ * redis 잔액 모드
+ * 잔액 검증과 차감/복원을 RedisBalanceStore 의 Lua 스크립트 한 번으로 처리하므로 계좌 lock 과 DB 조회/수정이 없다.
+ * 계좌는 처음 사용될 때 DB 에서 읽어 redis 에 올리고, 거래 기록과 계좌 잔액은 RedisBalanceWriteBehind 가 모아서 저장한다.
+ * 중복 취소는 DB 에 반영된 원거래의 취소 여부와, 복원 스크립트의 취소 표시로 막는다.
+ * 계좌 해지도 redis 의 잔액으로 확인하고 redis 의 계좌 상태를 바꾼다. (closeAccount, DB 트랜잭션이 롤백되면 되돌림)
+ * account.lock.provider=none 과 함께 사용하고, 일괄 처리도 이 엔진으로 처리되므로 DB 잔액을 직접 바꾸는 경로가 없다.
+ * DB 반영 전까지(flush-interval-ms 정도) 거래 조회와 계좌 잔액 조회에는 이전 값이 보일 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "redis")
+public class RedisBalanceEngine implements BalanceEngine {
+    private final RedisBalanceStore redisBalanceStore;
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+
+    @Override
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        accountUserRepository.findDtoById(userId)
+                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+
+        String transactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        Optional<Long> balance = redisBalanceStore.debit(
+                accountNumber, userId, amount, transactionId, transactedAt);
+        if (!balance.isPresent()) {
+            loadAccount(accountNumber);
+            balance = redisBalanceStore.debit(
+                    accountNumber, userId, amount, transactionId, transactedAt);
+        }
+
+        return toDto(USE, accountNumber, amount, balance, transactionId, transactedAt);
+    }
+
+    @Override
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        // DB 에 아직 반영되지 않은 거래도 취소할 수 있도록 redis 의 대기 기록을 먼저 찾는다.
+        Transaction transaction = redisBalanceStore.findPending(transactionId)
+                .map(LedgerRecord::toEntity)
+                .orElseGet(() -> transactionRepository.findByTransactionId(transactionId)
+                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+
+        validateCancelAmount(transaction, amount);
+
+        Long accountId = transaction.getAccount().getId();
+        String cancelTransactionId = transactionIdGenerator.generate();
+        LocalDateTime transactedAt = LocalDateTime.now();
+
+        Optional<Long> balance = redisBalanceStore.credit(accountNumber, accountId, amount,
+                cancelTransactionId, transactedAt, transactionId);
+        if (!balance.isPresent()) {
+            loadAccount(accountNumber);
+            balance = redisBalanceStore.credit(accountNumber, accountId, amount,
+                    cancelTransactionId, transactedAt, transactionId);
+        }
+
+        return toDto(CANCEL, accountNumber, amount, balance, cancelTransactionId, transactedAt);
+    }
+
+    // 해지하는 계좌를 그대로 올려서 확인하므로 DB 를 다시 읽지 않는다.
+    @Override
+    public void closeAccount(Account account) {
+        String accountNumber = account.getAccountNumber();
+        if (!redisBalanceStore.close(accountNumber)) {
+            redisBalanceStore.load(account);
+            // 방금 올린 계좌가 바로 지워진 경우 (재조정과 겹친 경우)
+            if (!redisBalanceStore.close(accountNumber)) {
+                throw new AccountException(ErrorCode.ACCOUNT_BALANCE_UNAVAILABLE);
+            }
+        }
+        // 해지 표시는 잔액 확인과 같은 스크립트에서 바로 남겨서 커밋 전에 들어온 취소가 잔액을 되살리지 못하게 하고,
+        // 해지를 저장하는 DB 트랜잭션이 롤백되면(write-behind 의 version 변경과 충돌 등) 되돌린다.
+        EngineTransactions.afterRollback(() -> redisBalanceStore.reopen(accountNumber));
+    }
+
+    private void loadAccount(String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        redisBalanceStore.load(account);
+    }
+
+    private TransactionDto toDto(TransactionType transactionType, String accountNumber,
+                                 Long amount, Optional<Long> balance,
+                                 String transactionId, LocalDateTime transactedAt) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionType(transactionType)
+                .transactionResultType(S)
+                .amount(amount)
+                // 방금 올린 계좌가 바로 지워진 경우 (재조정과 겹친 경우)
+                .balanceSnapshot(balance.orElseThrow(
+                        () -> new AccountException(ErrorCode.ACCOUNT_BALANCE_UNAVAILABLE)))
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+
+    private void validateCancelAmount(Transaction transaction, Long amount) {
+        if (transaction.isCanceled()) {
+            throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.ErrorCode;
+import com.example.Account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액을 redis 에 두고 Lua 스크립트 한 번으로 검증과 차감/복원을 처리한다.
+ * - ACBAL : {계좌번호} hash : balance, accountId, userId, status (해지하면 status 를 UNREGISTERED 로 바꿔 이후 차감/복원을 막음)
+ * - ACBAL-PENDING list : DB 에 아직 반영되지 않은 거래 기록 (차감과 같은 스크립트에서 추가되므로 계좌별 순서가 보장됨)
+ * - ACBAL-PENDING-TX hash : 거래 id → 거래 기록 (DB 반영 전 거래의 취소용)
+ * - ACBAL-DEAD-LETTER list : DB 에 저장할 수 없는 거래 기록 (계좌가 없는 경우). 확인 후 수동으로 처리한다.
+ * - ACBAL-CANCELED : {원거래 id} : 취소한 원거래 표시. DB 에 반영되면 원거래의 취소 여부로 확인하므로,
+ *   DB 조회와 스크립트 실행 사이에 반영이 끝나는 경우만 막으면 되어 하루 뒤 만료된다.
+ * 잔액 비교는 Lua number(double) 로 하므로 2^53 미만의 잔액에서만 정확하다.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "redis")
+public class RedisBalanceStore {
+    static final String BALANCE_KEY_PREFIX = "ACBAL : ";
+    static final String PENDING_KEY = "ACBAL-PENDING";
+    static final String PENDING_INDEX_KEY = "ACBAL-PENDING-TX";
+    static final String CANCELED_KEY_PREFIX = "ACBAL-CANCELED : ";
+    static final String DEAD_LETTER_KEY = "ACBAL-DEAD-LETTER";
+    private static final long CANCELED_TTL_SECONDS = 86400L;
+    private static final String WRITER_LOCK_KEY = "ACBAL-WRITER";
+    private static final String NOT_LOADED = "NOT_LOADED";
+    private static final String DELIMITER = "|";
+
+    private static final String LOAD_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 0 then " +
+                    "redis.call('hmset', KEYS[1], 'balance', ARGV[1], 'accountId', ARGV[2], " +
+                    "'userId', ARGV[3], 'status', ARGV[4]) " +
+                    "end " +
+                    "return 'OK'";
+
+    // ARGV : userId, amount, transactionId, transactedAt, accountNumber
+    private static final String DEBIT_SCRIPT =
+            "local account = redis.call('hmget', KEYS[1], 'balance', 'userId', 'status', 'accountId') " +
+                    "if not account[1] then return '" + NOT_LOADED + "' end " +
+                    "if account[2] ~= ARGV[1] then return 'USER_ACCOUNT_UN_MATCH' end " +
+                    "if account[3] ~= 'IN_USE' then return 'ACCOUNT_ALREADY_UNREGISTERED' end " +
+                    "if tonumber(account[1]) < tonumber(ARGV[2]) then return 'AMOUNT_EXCEED_BALANCE' end " +
+                    "redis.call('hincrby', KEYS[1], 'balance', '-' .. ARGV[2]) " +
+                    "local balance = redis.call('hget', KEYS[1], 'balance') " +
+                    "local record = ARGV[3] .. '|USE|' .. account[4] .. '|' .. ARGV[2] .. '|' .. balance " +
+                    ".. '|' .. ARGV[4] .. '|' .. ARGV[5] " +
+                    "redis.call('rpush', KEYS[2], record) " +
+                    "redis.call('hset', KEYS[3], ARGV[3], record) " +
+                    "return balance";
+
+    // ARGV : 원거래 accountId, amount, transactionId, transactedAt, accountNumber, 원거래 id, 취소 표시 만료(초)
+    private static final String CREDIT_SCRIPT =
+            "local account = redis.call('hmget', KEYS[1], 'balance', 'accountId', 'status') " +
+                    "if not account[1] then return '" + NOT_LOADED + "' end " +
+                    "if account[2] ~= ARGV[1] then return 'TRANSACTION_ACCOUNT_UN_MATCH' end " +
+                    "if account[3] ~= 'IN_USE' then return 'ACCOUNT_ALREADY_UNREGISTERED' end " +
+                    "if not redis.call('set', KEYS[4], ARGV[3], 'NX', 'EX', ARGV[7]) then " +
+                    "return 'TRANSACTION_ALREADY_CANCELED' end " +
+                    "redis.call('hincrby', KEYS[1], 'balance', ARGV[2]) " +
+                    "local balance = redis.call('hget', KEYS[1], 'balance') " +
+                    "local record = ARGV[3] .. '|CANCEL|' .. account[2] .. '|' .. ARGV[2] .. '|' .. balance " +
+                    ".. '|' .. ARGV[4] .. '|' .. ARGV[5] .. '|' .. ARGV[6] " +
+                    "redis.call('rpush', KEYS[2], record) " +
+                    "redis.call('hset', KEYS[3], ARGV[3], record) " +
+                    "return balance";
+
+    // 잔액이 남아 있으면 해지하지 않는다.
+    private static final String CLOSE_SCRIPT =
+            "local account = redis.call('hmget', KEYS[1], 'balance', 'status') " +
+                    "if not account[1] then return '" + NOT_LOADED + "' end " +
+                    "if account[2] ~= 'IN_USE' then return 'ACCOUNT_ALREADY_UNREGISTERED' end " +
+                    "if tonumber(account[1]) > 0 then return 'BALANCE_NOT_EMPTY' end " +
+                    "redis.call('hset', KEYS[1], 'status', 'UNREGISTERED') " +
+                    "return account[1]";
+
+    // 해지를 저장하지 못한 경우 해지 표시만 되돌린다. (계좌가 redis 에 없으면 다음 로딩 때 DB 상태를 읽음)
+    private static final String REOPEN_SCRIPT =
+            "if redis.call('hget', KEYS[1], 'status') == 'UNREGISTERED' then " +
+                    "redis.call('hset', KEYS[1], 'status', 'IN_USE') " +
+                    "end " +
+                    "return 'OK'";
+
+    // ARGV : 반영한 기록 수, 반영한 거래 id 들
+    private static final String REMOVE_PENDING_SCRIPT =
+            "redis.call('ltrim', KEYS[1], ARGV[1], -1) " +
+                    "for i = 2, #ARGV do redis.call('hdel', KEYS[2], ARGV[i]) end " +
+                    "return 'OK'";
+
+    // 그 사이 잔액이 바뀌었거나 반영 대기 기록이 있으면 지우지 않는다.
+    private static final String EVICT_SCRIPT =
+            "if redis.call('hget', KEYS[1], 'balance') == ARGV[1] " +
+                    "and redis.call('llen', KEYS[2]) == 0 then " +
+                    "redis.call('del', KEYS[1]) return 1 end " +
+                    "return 0";
+
+    private final RedissonClient redissonClient;
+
+    public void load(Account account) {
+        eval(LOAD_SCRIPT, Collections.singletonList(balanceKey(account.getAccountNumber())),
+                account.getBalance(), account.getId(),
+                account.getAccountUser().getId(), account.getAccountStatus().name());
+    }
+
+    /**
+     * 검증에 실패하면 AccountException, 계좌가 redis 에 없으면 Optional.empty()
+     * 성공하면 차감 후 잔액을 반환한다.
+     */
+    public Optional<Long> debit(String accountNumber, Long userId, Long amount,
+                                String transactionId, LocalDateTime transactedAt) {
+        return toBalance(eval(DEBIT_SCRIPT, mutationKeys(accountNumber),
+                userId, amount, transactionId, transactedAt, accountNumber));
+    }
+
+    /**
+     * 원거래를 이미 취소했으면 TRANSACTION_ALREADY_CANCELED
+     */
+    public Optional<Long> credit(String accountNumber, Long accountId, Long amount,
+                                 String transactionId, LocalDateTime transactedAt,
+                                 String originalTransactionId) {
+        List<Object> keys = new ArrayList<>(mutationKeys(accountNumber));
+        keys.add(CANCELED_KEY_PREFIX + originalTransactionId);
+        return toBalance(eval(CREDIT_SCRIPT, keys, accountId, amount, transactionId,
+                transactedAt, accountNumber, originalTransactionId, CANCELED_TTL_SECONDS));
+    }
+
+    /**
+     * 잔액이 남아 있으면 BALANCE_NOT_EMPTY, 계좌가 redis 에 없으면 false
+     */
+    public boolean close(String accountNumber) {
+        return toBalance(eval(CLOSE_SCRIPT,
+                Collections.singletonList(balanceKey(accountNumber)))).isPresent();
+    }
+
+    public void reopen(String accountNumber) {
+        eval(REOPEN_SCRIPT, Collections.singletonList(balanceKey(accountNumber)));
+    }
+
+    public Optional<LedgerRecord> findPending(String transactionId) {
+        String record = redissonClient.<String, String>getMap(PENDING_INDEX_KEY, StringCodec.INSTANCE)
+                .get(transactionId);
+        return Optional.ofNullable(record).map(RedisBalanceStore::parse);
+    }
+
+    // 반영 대기 기록을 앞에서부터 최대 max 건 (지우지 않음)
+    public List<LedgerRecord> peekPending(int max) {
+        return redissonClient.<String>getList(PENDING_KEY, StringCodec.INSTANCE)
+                .range(0, max - 1).stream()
+                .map(RedisBalanceStore::parse)
+                .collect(Collectors.toList());
+    }
+
+    // DB 에 반영한 기록을 앞에서부터 제거
+    public void removePending(List<LedgerRecord> written) {
+        List<Object> args = new ArrayList<>(written.size() + 1);
+        args.add(written.size());
+        for (LedgerRecord record : written) {
+            args.add(record.getTransactionId());
+        }
+        eval(REMOVE_PENDING_SCRIPT, Arrays.asList(PENDING_KEY, PENDING_INDEX_KEY), args.toArray());
+    }
+
+    public void addDeadLetters(List<LedgerRecord> records) {
+        redissonClient.<String>getList(DEAD_LETTER_KEY, StringCodec.INSTANCE)
+                .addAll(records.stream()
+                        .map(RedisBalanceStore::format)
+                        .collect(Collectors.toList()));
+    }
+
+    public Iterable<String> loadedAccountNumbers() {
+        List<String> accountNumbers = new ArrayList<>();
+        for (String key : redissonClient.getKeys().getKeysByPattern(BALANCE_KEY_PREFIX + "*")) {
+            accountNumbers.add(key.substring(BALANCE_KEY_PREFIX.length()));
+        }
+        return accountNumbers;
+    }
+
+    public Optional<Long> findBalance(String accountNumber) {
+        String balance = redissonClient.<String, String>getMap(
+                balanceKey(accountNumber), StringCodec.INSTANCE).get("balance");
+        return Optional.ofNullable(balance).map(Long::valueOf);
+    }
+
+    // 다음 요청에서 DB 잔액으로 다시 읽어오도록 계좌를 redis 에서 제거
+    public boolean evict(String accountNumber, Long expectedBalance) {
+        Long evicted = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, EVICT_SCRIPT, RScript.ReturnType.INTEGER,
+                Arrays.asList(balanceKey(accountNumber), PENDING_KEY),
+                String.valueOf(expectedBalance));
+        return evicted == 1L;
+    }
+
+    // 여러 인스턴스 중 한 곳에서만 DB 에 반영하도록 잡는 lock
+    public RLock writerLock() {
+        return redissonClient.getLock(WRITER_LOCK_KEY);
+    }
+
+    private Optional<Long> toBalance(String reply) {
+        if (NOT_LOADED.equals(reply)) {
+            return Optional.empty();
+        }
+        if (!Character.isDigit(reply.charAt(0))) {
+            throw new AccountException(ErrorCode.valueOf(reply));
+        }
+        return Optional.of(Long.valueOf(reply));
+    }
+
+    private String eval(String script, List<Object> keys, Object... args) {
+        Object[] values = Arrays.stream(args).map(String::valueOf).toArray();
+        return redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE, script, RScript.ReturnType.VALUE, keys, values);
+    }
+
+    // transactionId|transactionType|accountId|amount|balanceSnapshot|transactedAt|accountNumber[|originalTransactionId]
+    private static LedgerRecord parse(String record) {
+        String[] fields = record.split("\\" + DELIMITER);
+        return new LedgerRecord(fields[0], TransactionType.valueOf(fields[1]),
+                Long.valueOf(fields[2]), Long.valueOf(fields[3]), Long.valueOf(fields[4]),
+                LocalDateTime.parse(fields[5]), fields[6], fields.length > 7 ? fields[7] : null);
+    }
+
+    private static String format(LedgerRecord record) {
+        String formatted = String.join(DELIMITER, record.getTransactionId(),
+                record.getTransactionType().name(), String.valueOf(record.getAccountId()),
+                String.valueOf(record.getAmount()), String.valueOf(record.getBalanceSnapshot()),
+                record.getTransactedAt().toString(), record.getAccountNumber());
+        return record.getOriginalTransactionId() == null
+                ? formatted : formatted + DELIMITER + record.getOriginalTransactionId();
+    }
+
+    private static List<Object> mutationKeys(String accountNumber) {
+        return Arrays.asList(balanceKey(accountNumber), PENDING_KEY, PENDING_INDEX_KEY);
+    }
+
+    private static String balanceKey(String accountNumber) {
+        return BALANCE_KEY_PREFIX + accountNumber;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.AccountBalance;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.service.ledger.LedgerRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * redis 잔액 모드의 DB 반영 (write-behind)
+ * ACBAL-PENDING 의 거래 기록을 앞에서부터 batch-size 건씩 LedgerBatchWriter 로 저장하고,
+ * 커밋한 뒤에만 redis 에서 지운다. 그 사이에 죽으면 다음 기동 때 같은 기록을 다시 반영한다. (여러 번 반영해도 결과가 같음)
+ * 계좌가 없어서 저장할 수 없는 기록은 ACBAL-DEAD-LETTER 로 옮기고 오류 로그를 남긴다.
+ * 기동 시 대기 기록을 모두 반영한 뒤 redis 잔액을 DB(원장) 잔액과 비교해서,
+ * 다르면 redis 의 계좌를 지워 다음 요청에서 DB 잔액으로 다시 읽어오게 한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "redis")
+public class RedisBalanceWriteBehind {
+    private final RedisBalanceStore redisBalanceStore;
+    private final AccountRepository accountRepository;
+    private final LedgerBatchWriter ledgerBatchWriter;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public RedisBalanceWriteBehind(
+            RedisBalanceStore redisBalanceStore,
+            AccountRepository accountRepository,
+            LedgerBatchWriter ledgerBatchWriter,
+            @Value("${account.transaction.redis.batch-size:500}") int batchSize,
+            @Value("${account.transaction.redis.flush-interval-ms:50}") long flushIntervalMs) {
+        this.redisBalanceStore = redisBalanceStore;
+        this.accountRepository = accountRepository;
+        this.ledgerBatchWriter = ledgerBatchWriter;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        recover();
+        running = true;
+        worker = new Thread(this::run, "redis-balance-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        flushAll();
+    }
+
+    // 이전 실행에서 반영하지 못한 기록을 모두 저장한 뒤 redis 잔액을 원장과 맞춘다.
+    public void recover() {
+        flushAll();
+        reconcile();
+    }
+
+    public void flushAll() {
+        while (flush() == batchSize) {
+            // 대기 기록이 batch-size 보다 적게 남을 때까지 반복
+        }
+    }
+
+    /**
+     * 대기 기록을 한 batch 반영하고 처리한 건수를 반환한다.
+     * 다른 인스턴스가 반영 중이면 0
+     */
+    public int flush() {
+        RLock writerLock = redisBalanceStore.writerLock();
+        if (!writerLock.tryLock()) {
+            return 0;
+        }
+        try {
+            List<LedgerRecord> batch = redisBalanceStore.peekPending(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<LedgerRecord> rejected = ledgerBatchWriter.write(batch);
+            if (!rejected.isEmpty()) {
+                log.error("{} redis transactions cannot be written to the ledger. Moved to dead letters : {}",
+                        rejected.size(), rejected.stream()
+                                .map(LedgerRecord::getTransactionId)
+                                .collect(Collectors.toList()));
+                redisBalanceStore.addDeadLetters(rejected);
+            }
+            redisBalanceStore.removePending(batch);
+            return batch.size();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    void reconcile() {
+        for (String accountNumber : redisBalanceStore.loadedAccountNumbers()) {
+            Optional<Long> cachedBalance = redisBalanceStore.findBalance(accountNumber);
+            Optional<AccountBalance> ledgerBalance =
+                    accountRepository.findBalanceByAccountNumber(accountNumber);
+            if (!cachedBalance.isPresent() || (ledgerBalance.isPresent()
+                    && cachedBalance.get().equals(ledgerBalance.get().getBalance()))) {
+                continue;
+            }
+            if (redisBalanceStore.evict(accountNumber, cachedBalance.get())) {
+                log.warn("Redis balance of accountNumber : {} differs from ledger. cached : {}, ledger : {}",
+                        accountNumber, cachedBalance.get(),
+                        ledgerBalance.map(AccountBalance::getBalance).orElse(null));
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (flush() < batchSize) {
+                    Thread.sleep(flushIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // 반영하지 못한 기록은 redis 에 남아 있으므로 다음 주기에 다시 시도
+                log.error("Failed to write pending redis transactions", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 단일 writer shard
+ * 계좌 번호를 해시해서 N 개의 단일 스레드 executor 중 하나에 고정으로 배정한다.
+ * 한 계좌의 잔액 사용/취소는 항상 같은 스레드에서 도착 순서대로 실행되므로 계좌 lock 이 필요 없다.
+ * shard 는 잔액을 들고 있지 않고 계좌별 실행 순서만 정하며, 잔액은 TransactionService 로 DB 에서 변경한다.
+ * (잔액을 메모리에 두고 DB 에 나중에 반영하는 방식은 journal 엔진)
+ * 요청 스레드는 작업을 넘기고 결과를 await-timeout-ms 까지 기다린다.
+ * 시간이 지나도 작업은 shard 에서 계속 실행될 수 있으므로 TRANSACTION_RESULT_TIMEOUT 은 실패 거래로 기록하지 않는다. (TransactionExecutor)
+ * account.lock.provider=none 과 함께 사용한다. 일괄 처리도 이 엔진으로 처리되며,
+ * shard 밖의 수정(계좌 해지)과의 동시 수정은 Account.version 충돌과 재시도로 처리한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.transaction.engine", havingValue = "sharded")
+public class ShardedBalanceEngine implements BalanceEngine {
+    private final TransactionService transactionService;
+    private final ExecutorService[] shards;
+    private final long awaitTimeoutMs;
+
+    public ShardedBalanceEngine(
+            TransactionService transactionService,
+            @Value("${account.transaction.sharded.shards:16}") int shardCount,
+            @Value("${account.transaction.sharded.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.transaction.await-timeout-ms:5000}") long awaitTimeoutMs) {
+        this.transactionService = transactionService;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            String threadName = "balance-shard-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    // 실행 중인 작업은 기다리고, 시작하지 못한 작업은 기다리는 요청에 실패로 알린다.
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            if (shard.awaitTermination(awaitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            for (Runnable queued : shard.shutdownNow()) {
+                if (queued instanceof ShardTask) {
+                    ((ShardTask) queued).result.completeExceptionally(
+                            new AccountException(ACCOUNT_TRANSACTION_LOCK));
+                }
+            }
+        }
+    }
+
+    @Override
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        return submit(accountNumber, () ->
+                transactionService.useBalance(userId, accountNumber, amount));
+    }
+
+    @Override
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return submit(accountNumber, () ->
+                transactionService.cancelBalance(transactionId, accountNumber, amount));
+    }
+
+    int shardOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    private TransactionDto submit(String accountNumber, Supplier<TransactionDto> task) {
+        ShardTask shardTask = new ShardTask(task);
+        try {
+            shards[shardOf(accountNumber)].execute(shardTask);
+        } catch (RejectedExecutionException e) {
+            // shard 큐가 가득 찼거나 종료 중인 경우 계좌가 사용 중인 것으로 응답
+            log.error("Shard rejected a task for accountNumber : {}", accountNumber);
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+        return EngineFutures.await(shardTask.result, awaitTimeoutMs);
+    }
+
+    private static class ShardTask implements Runnable {
+        private final Supplier<TransactionDto> task;
+        private final CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+
+        private ShardTask(Supplier<TransactionDto> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
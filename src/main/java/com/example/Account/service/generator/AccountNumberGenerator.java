@@ -0,0 +1,76 @@
+package com.example.Account.service.generator;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_NUMBER_EXHAUSTED;
+
+/**
+ * 계좌 번호 채번기
+ * DB 시퀀스(account_number_seq)에서 블록 번호를 받아 blockSize 개의 번호를 메모리에서 발급한다.
+ * 시퀀스가 노드 간에 블록을 나눠주므로 중복 확인 조회 없이도 번호가 겹치지 않는다.
+ * 계좌 번호 = 9자리 일련번호 + Luhn 체크 디지트 1자리
+ * blockSize 는 모든 노드에서 같아야 하며 운영 중에 바꾸면 안 된다.
+ */
+@Component
+public class AccountNumberGenerator {
+    private static final long FIRST_BODY = 100_000_000L;
+    private static final long LAST_BODY = 999_999_999L;
+
+    private final AccountRepository accountRepository;
+    private final int blockSize;
+
+    private long next;
+    private long limit;
+
+    public AccountNumberGenerator(
+            AccountRepository accountRepository,
+            @Value("${account.number.block-size:100}") int blockSize) {
+        this.accountRepository = accountRepository;
+        this.blockSize = blockSize;
+    }
+
+    public synchronized String next() {
+        if (next >= limit) {
+            long block = accountRepository.nextAccountNumberBlock() - 1;
+            next = FIRST_BODY + block * blockSize;
+            limit = next + blockSize;
+        }
+
+        long body = next++;
+        if (body > LAST_BODY) {
+            throw new AccountException(ACCOUNT_NUMBER_EXHAUSTED);
+        }
+        return String.valueOf(body) + checkDigit(body);
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() != 10
+                || !accountNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        long body = Long.parseLong(accountNumber.substring(0, 9));
+        return checkDigit(body) == accountNumber.charAt(9) - '0';
+    }
+
+    // Luhn: 체크 디지트 바로 앞자리부터 한 자리씩 건너 두 배
+    static int checkDigit(long body) {
+        int sum = 0;
+        boolean doubled = true;
+        while (body > 0) {
+            int digit = (int) (body % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+            body /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.Account.service.generator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순으로 증가하는 거래 id
+ * 41bit 밀리초(2023-01-01 기준) | 10bit 노드 id | 12bit 일련번호 를 16자리 hex 로 표현한다.
+ * 자리수가 고정이라 문자열 정렬 순서가 생성 순서와 같아 transaction_id 인덱스에 순서대로 쌓인다.
+ * 노드마다 node-id 를 다르게 설정해야 노드 간에 겹치지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.transaction-id.generator", havingValue = "snowflake",
+        matchIfMissing = true)
+public class SnowflakeTransactionIdGenerator implements TransactionIdGenerator {
+    private static final long EPOCH = 1672531200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final long nodeId;
+
+    // 밀리초 | 일련번호. 같은 밀리초에 일련번호가 넘치거나 시계가 뒤로 가도 +1 로 계속 증가한다.
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeTransactionIdGenerator(
+            @Value("${account.transaction-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId >= (1L << NODE_BITS)) {
+            throw new IllegalArgumentException("node-id must be between 0 and 1023 : " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public String generate() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long state = lastState.updateAndGet(last -> Math.max(last + 1, now));
+
+        long id = ((state >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | (state & SEQUENCE_MASK);
+
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Account.service.generator;
+
+/**
+ * 거래 id 생성기
+ * account.transaction-id.generator 설정으로 선택한다.
+ * - snowflake (기본값) : 시간순 정렬되는 16자리 hex (시각 + 노드 id + 일련번호)
+ * - uuid : 기존 방식, 하이픈을 제거한 32자리 UUID
+ */
+public interface TransactionIdGenerator {
+    String generate();
+}
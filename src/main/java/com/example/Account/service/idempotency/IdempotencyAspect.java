@@ -0,0 +1,180 @@
+package com.example.Account.service.idempotency;
+
+import com.example.Account.aop.AccountLockIdInterface;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * @Idempotent 메소드의 멱등성 키 처리
+ * - 첫 요청 : 처리 중 표시를 남기고 실행한 뒤 응답을 저장.
+ *   거래 검증 실패(AccountException)는 오류를 저장해서 재요청에도 실패 거래를 다시 남기지 않고 같은 오류로 응답하고,
+ *   다시 시도하면 되는 실패(lock, 동시 수정, 잔액 로딩)와 그 밖의 오류는 표시를 지워 같은 키로 다시 시도할 수 있게 한다.
+ *   결과를 알 수 없는 실패(TRANSACTION_RESULT_TIMEOUT)는 엔진이 나중에 커밋할 수 있으므로 실패로 저장하지 않고
+ *   처리 중 표시를 그대로 둔다. (in-progress-ttl-seconds 가 지나면 만료)
+ * - 재요청 : 저장된 응답이나 오류를 그대로 반환 (메소드를 실행하지 않으므로 lock 과 DB 를 거치지 않음)
+ * - 첫 요청을 처리 중이면 IDEMPOTENT_REQUEST_IN_PROGRESS, 같은 키에 다른 요청 본문이면 IDEMPOTENCY_KEY_REUSED
+ * 키는 메소드 이름과 계좌 번호별로 구분해서 다른 사용자가 같은 키를 보내도 겹치지 않는다.
+ * CompletableFuture 를 반환하는 메소드(AsyncTransactionController)는 완료 시점에 저장한다.
+ * LockAopAspect 보다 먼저 실행되어야 하므로 가장 높은 우선순위를 둔다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+    // 잔액을 바꾸지 못한 채 실패해서 같은 요청을 다시 보내면 되는 오류
+    private static final Set<ErrorCode> RETRYABLE_ERRORS = EnumSet.of(
+            ErrorCode.ACCOUNT_TRANSACTION_LOCK, ErrorCode.ACCOUNT_CONCURRENT_UPDATE,
+            ErrorCode.ACCOUNT_BALANCE_UNAVAILABLE);
+    // 처리 결과를 알 수 없는 오류 (처리 중 표시를 유지)
+    private static final Set<ErrorCode> UNKNOWN_OUTCOME_ERRORS = EnumSet.of(
+            ErrorCode.TRANSACTION_RESULT_TIMEOUT);
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    @Around("@annotation(com.example.Account.aop.Idempotent)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        String idempotencyKey = currentIdempotencyKey();
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        String key = signature.getName() + ":" + scopeOf(pjp.getArgs()) + ":" + idempotencyKey;
+        String requestHash = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(pjp.getArgs()));
+
+        Optional<IdempotencyRecord> existing =
+                idempotencyStore.putIfAbsent(key, IdempotencyRecord.inProgress(requestHash));
+        if (existing.isPresent()) {
+            return replay(existing.get(), requestHash, signature.getMethod());
+        }
+
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            saveFailure(key, requestHash, e);
+            throw e;
+        }
+
+        if (result instanceof CompletableFuture) {
+            return ((CompletableFuture<?>) result).whenComplete((response, e) -> {
+                if (e != null) {
+                    saveFailure(key, requestHash,
+                            e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                } else {
+                    save(key, requestHash, response);
+                }
+            });
+        }
+        save(key, requestHash, result);
+        return result;
+    }
+
+    private Object replay(IdempotencyRecord record, String requestHash, Method method)
+            throws Exception {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new AccountException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (!record.isCompleted()) {
+            throw new AccountException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+        }
+
+        if (record.getErrorCode() != null) {
+            log.info("Replaying failure of {} for idempotency key.", method.getName());
+            throw new AccountException(record.getErrorCode());
+        }
+
+        log.info("Replaying response of {} for idempotency key.", method.getName());
+        Object response = objectMapper.readValue(record.getResponse(), responseType(method));
+        if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return response;
+    }
+
+    private void save(String key, String requestHash, Object response) {
+        try {
+            idempotencyStore.put(key, IdempotencyRecord.completed(
+                    requestHash, objectMapper.writeValueAsString(response)));
+        } catch (Exception e) {
+            // 응답은 이미 만들어졌으므로 실패시키지 않고, 같은 키로 다시 처리될 수 있게 표시만 지운다.
+            log.error("Failed to save idempotent response.", e);
+            idempotencyStore.remove(key);
+        }
+    }
+
+    private void saveFailure(String key, String requestHash, Throwable e) {
+        if (e instanceof AccountException) {
+            ErrorCode errorCode = ((AccountException) e).getErrorCode();
+            if (UNKNOWN_OUTCOME_ERRORS.contains(errorCode)) {
+                log.warn("Outcome of idempotent request is unknown ({}).", errorCode);
+                return;
+            }
+            if (!RETRYABLE_ERRORS.contains(errorCode)) {
+                idempotencyStore.put(key, IdempotencyRecord.failed(requestHash, errorCode));
+                return;
+            }
+        }
+        idempotencyStore.remove(key);
+    }
+
+    // 요청의 계좌 번호 (계좌 번호가 없는 요청은 메소드 이름만으로 구분)
+    private static String scopeOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof AccountLockIdInterface) {
+                return ((AccountLockIdInterface) arg).getAccountNumber();
+            }
+        }
+        return "";
+    }
+
+    private JavaType responseType(Method method) {
+        if (CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+            return objectMapper.constructType(((ParameterizedType) method.getGenericReturnType())
+                    .getActualTypeArguments()[0]);
+        }
+        return objectMapper.constructType(method.getGenericReturnType());
+    }
+
+    private static String currentIdempotencyKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String idempotencyKey = ((ServletRequestAttributes) attributes).getRequest()
+                .getHeader(IDEMPOTENCY_KEY_HEADER);
+        return StringUtils.hasText(idempotencyKey) ? idempotencyKey : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.Account.service.idempotency;
+
+import com.example.Account.type.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 멱등성 키에 저장하는 값
+ * response 와 errorCode 가 모두 없으면 첫 요청을 처리 중인 상태
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    // 같은 키로 다른 요청 본문을 보냈는지 확인하는 요청 해시
+    private String requestHash;
+    // 첫 요청의 응답 (JSON)
+    private String response;
+    // 첫 요청이 거래 검증에 실패한 경우의 오류 (재요청에도 같은 오류로 응답)
+    private ErrorCode errorCode;
+
+    public static IdempotencyRecord inProgress(String requestHash) {
+        return new IdempotencyRecord(requestHash, null, null);
+    }
+
+    public static IdempotencyRecord completed(String requestHash, String response) {
+        return new IdempotencyRecord(requestHash, response, null);
+    }
+
+    public static IdempotencyRecord failed(String requestHash, ErrorCode errorCode) {
+        return new IdempotencyRecord(requestHash, null, errorCode);
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return response != null || errorCode != null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.Account.service.idempotency;
+
+import java.util.Optional;
+
+/**
+ * 멱등성 키 → 응답 저장소 (account.idempotency.store)
+ * - memory : 인스턴스 로컬 Caffeine 캐시
+ * - redis : 인스턴스 간 공유
+ * 저장한 값은 account.idempotency.ttl-seconds 가 지나면 사라진다.
+ */
+public interface IdempotencyStore {
+    // 키가 없으면 저장하고 Optional.empty(), 있으면 저장된 값을 반환
+    Optional<IdempotencyRecord> putIfAbsent(String key, IdempotencyRecord record);
+
+    void put(String key, IdempotencyRecord record);
+
+    void remove(String key);
+}
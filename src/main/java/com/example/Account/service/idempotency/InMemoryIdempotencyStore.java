@@ -0,0 +1,77 @@
+package com.example.Account.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 단일 인스턴스용 멱등성 키 저장소
+ * 크기(max-size)를 넘으면 오래 쓰이지 않은 키부터 지운다.
+ * 처리 중 표시는 in-progress-ttl-seconds, 응답은 ttl-seconds 동안 보관한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, IdempotencyRecord> cache;
+
+    public InMemoryIdempotencyStore(
+            @Value("${account.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${account.idempotency.in-progress-ttl-seconds:30}") long inProgressTtlSeconds,
+            @Value("${account.idempotency.max-size:100000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new RecordExpiry(
+                        Duration.ofSeconds(ttlSeconds).toNanos(),
+                        Duration.ofSeconds(inProgressTtlSeconds).toNanos()))
+                .build();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> putIfAbsent(String key, IdempotencyRecord record) {
+        return Optional.ofNullable(cache.asMap().putIfAbsent(key, record));
+    }
+
+    @Override
+    public void put(String key, IdempotencyRecord record) {
+        cache.put(key, record);
+    }
+
+    @Override
+    public void remove(String key) {
+        cache.invalidate(key);
+    }
+
+    // 저장(갱신)할 때마다 값의 상태에 따라 만료 시간을 다시 정한다.
+    private static class RecordExpiry implements Expiry<String, IdempotencyRecord> {
+        private final long ttlNanos;
+        private final long inProgressTtlNanos;
+
+        private RecordExpiry(long ttlNanos, long inProgressTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.inProgressTtlNanos = inProgressTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord record, long currentTime) {
+            return record.isCompleted() ? ttlNanos : inProgressTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord record,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, record, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord record,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.Account.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 인스턴스가 공유하는 멱등성 키 저장소
+ * 처리 중 표시는 in-progress-ttl-seconds 만 유지해서, 처리 중에 인스턴스가 죽어도 그 뒤에는 같은 키로 다시 요청할 수 있다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.idempotency.store", havingValue = "redis")
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private static final String KEY_PREFIX = "IDEM : ";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+    private final long inProgressTtlSeconds;
+
+    public RedisIdempotencyStore(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            @Value("${account.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${account.idempotency.in-progress-ttl-seconds:30}") long inProgressTtlSeconds) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttlSeconds;
+        this.inProgressTtlSeconds = inProgressTtlSeconds;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> putIfAbsent(String key, IdempotencyRecord record) {
+        RBucket<String> bucket = bucket(key);
+        String value = serialize(record);
+        while (!bucket.trySet(value, inProgressTtlSeconds, TimeUnit.SECONDS)) {
+            String existing = bucket.get();
+            // 확인하는 사이 만료된 경우 다시 저장 시도
+            if (existing != null) {
+                return Optional.of(deserialize(existing));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(String key, IdempotencyRecord record) {
+        bucket(key).set(serialize(record), ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void remove(String key) {
+        bucket(key).delete();
+    }
+
+    private RBucket<String> bucket(String key) {
+        return redissonClient.getBucket(KEY_PREFIX + key, StringCodec.INSTANCE);
+    }
+
+    private String serialize(IdempotencyRecord record) {
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private IdempotencyRecord deserialize(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.Account.service.ledger;
+
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실패 거래 기록을 비동기로 모아서 JDBC batch insert 로 저장한다.
+ * 요청 스레드는 큐에 넣기만 하므로 계좌 lock 을 잡고 있는 시간이 늘어나지 않는다.
+ * - 큐가 가득 차면 offer-timeout-ms 만큼 기다리고, 그래도 자리가 없으면 요청 스레드가 직접 저장 (backpressure)
+ * - 종료 시 큐에 남은 기록을 모두 저장
+ * 잔액 스냅샷은 저장 시점의 계좌 잔액이며, 계좌가 없으면 기록하지 않는다.
+ * id 는 TransactionSequence 에서 블록 단위로 받는다. (batch 마다 시퀀스를 조회하지 않음)
+ */
+@Slf4j
+@Component
+public class FailedTransactionWriter {
+    private static final String INSERT_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, " +
+                    "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at) " +
+                    "select cast(? as bigint), a.id, ?, 'F', ?, a.balance, ?, ?, ?, ? " +
+                    "from account a where a.account_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionSequence transactionSequence;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public FailedTransactionWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionIdGenerator transactionIdGenerator,
+            TransactionSequence transactionSequence,
+            @Value("${account.failed-transaction.queue-capacity:10000}") int queueCapacity,
+            @Value("${account.failed-transaction.batch-size:100}") int batchSize,
+            @Value("${account.failed-transaction.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.transactionSequence = transactionSequence;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "failed-transaction-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+    }
+
+    public void write(TransactionType transactionType, String accountNumber, Long amount) {
+        LocalDateTime now = LocalDateTime.now();
+        FailedTransaction failedTransaction = new FailedTransaction(transactionType,
+                accountNumber, amount, transactionIdGenerator.generate(), now);
+
+        try {
+            if (queue.offer(failedTransaction, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+            log.warn("Failed transaction queue is full. Writing synchronously.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        insert(Collections.singletonList(failedTransaction));
+    }
+
+    // 큐에 남은 기록을 호출한 스레드에서 모두 저장
+    public void flush() {
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                FailedTransaction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to write {} failed transactions", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<FailedTransaction> batch) {
+        long[] ids = transactionSequence.next(batch.size());
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            FailedTransaction failedTransaction = batch.get(i);
+            args.add(new Object[]{
+                    ids[i],
+                    failedTransaction.getTransactionType().name(),
+                    failedTransaction.getAmount(),
+                    failedTransaction.getTransactionId(),
+                    failedTransaction.getTransactedAt(),
+                    failedTransaction.getTransactedAt(),
+                    failedTransaction.getTransactedAt(),
+                    failedTransaction.getAccountNumber()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class FailedTransaction {
+        private final TransactionType transactionType;
+        private final String accountNumber;
+        private final Long amount;
+        private final String transactionId;
+        private final LocalDateTime transactedAt;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.Account.service.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DB 밖에서 처리한 거래 기록을 한 트랜잭션으로 모아서 저장한다. (redis, journal 엔진의 write-behind)
+ * - 거래 id 가 이미 있는 기록은 건너뛰고, 잔액도 새로 저장한 기록으로만 갱신하므로 같은 기록을 여러 번 넘겨도 결과가 같다.
+ * - 계좌 잔액은 batch 안에서 그 계좌의 마지막 기록의 잔액 스냅샷으로 맞추므로, 기록은 잔액을 바꾼 순서대로 넘겨야 한다.
+ * - 새로 저장한 취소 기록의 원거래는 취소 상태로 바꾼다.
+ * - 저장되지 않았는데 거래 id 도 없는 기록(계좌가 없는 경우)은 저장할 수 없는 기록으로 돌려준다.
+ * id 는 FailedTransactionWriter 와 같이 TransactionSequence 에서 블록 단위로 받는다. (저장하지 않은 기록의 id 는 버림)
+ */
+@Component
+public class LedgerBatchWriter {
+    private static final String INSERT_SQL =
+            "insert into transaction (id, account_id, transaction_type, transaction_result_type, " +
+                    "amount, balance_snapshot, transaction_id, transacted_at, created_at, updated_at, " +
+                    "original_transaction_id) " +
+                    "select cast(? as bigint), a.id, ?, 'S', ?, ?, ?, ?, ?, ?, ? " +
+                    "from account a where a.id = ? " +
+                    "and not exists (select 1 from transaction t where t.transaction_id = ?)";
+    private static final String CANCEL_ORIGINAL_SQL =
+            "update transaction set canceled = true, updated_at = ? where transaction_id = ?";
+    private static final String EXISTING_TRANSACTION_IDS_SQL =
+            "select transaction_id from transaction where transaction_id in (%s)";
+    private static final String UPDATE_BALANCE_SQL =
+            "update account set balance = ?, version = version + 1, updated_at = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionSequence transactionSequence;
+
+    public LedgerBatchWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             TransactionSequence transactionSequence) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionSequence = transactionSequence;
+    }
+
+    /**
+     * 저장할 수 없는 기록을 반환한다. (나머지 기록은 커밋됨)
+     */
+    public List<LedgerRecord> write(List<LedgerRecord> batch) {
+        return transactionTemplate.execute(status -> insertAndUpdateBalance(batch));
+    }
+
+    private List<LedgerRecord> insertAndUpdateBalance(List<LedgerRecord> batch) {
+        long[] ids = transactionSequence.next(batch.size());
+        List<Object[]> insertArgs = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            LedgerRecord record = batch.get(i);
+            insertArgs.add(new Object[]{
+                    ids[i],
+                    record.getTransactionType().name(),
+                    record.getAmount(),
+                    record.getBalanceSnapshot(),
+                    record.getTransactionId(),
+                    record.getTransactedAt(),
+                    record.getTransactedAt(),
+                    record.getTransactedAt(),
+                    record.getOriginalTransactionId(),
+                    record.getAccountId(),
+                    record.getTransactionId()
+            });
+        }
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, insertArgs);
+        List<LedgerRecord> rejected = findRejected(batch, inserted);
+
+        // 새로 저장한 기록 중 계좌별 마지막 기록과 취소된 원거래
+        Map<Long, LedgerRecord> latestByAccount = new LinkedHashMap<>();
+        List<Object[]> cancelArgs = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i] != 0) {
+                LedgerRecord record = batch.get(i);
+                latestByAccount.put(record.getAccountId(), record);
+                if (record.getOriginalTransactionId() != null) {
+                    cancelArgs.add(new Object[]{now, record.getOriginalTransactionId()});
+                }
+            }
+        }
+        if (latestByAccount.isEmpty()) {
+            return rejected;
+        }
+        if (!cancelArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(CANCEL_ORIGINAL_SQL, cancelArgs);
+        }
+
+        List<Object[]> updateArgs = new ArrayList<>(latestByAccount.size());
+        for (LedgerRecord latest : latestByAccount.values()) {
+            updateArgs.add(new Object[]{latest.getBalanceSnapshot(), now, latest.getAccountId()});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, updateArgs);
+        return rejected;
+    }
+
+    // insert 되지 않은 기록 중 이미 저장된 것(다시 넘긴 기록)을 빼면 계좌가 없어서 저장하지 못한 기록
+    private List<LedgerRecord> findRejected(List<LedgerRecord> batch, int[] inserted) {
+        List<String> skippedIds = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i] == 0) {
+                skippedIds.add(batch.get(i).getTransactionId());
+            }
+        }
+        if (skippedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String sql = String.format(EXISTING_TRANSACTION_IDS_SQL,
+                String.join(", ", Collections.nCopies(skippedIds.size(), "?")));
+        Set<String> existingIds = new HashSet<>(
+                jdbcTemplate.queryForList(sql, String.class, skippedIds.toArray()));
+
+        List<LedgerRecord> rejected = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (inserted[i] == 0 && !existingIds.contains(batch.get(i).getTransactionId())) {
+                rejected.add(batch.get(i));
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Account.service.ledger;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.Transaction;
+import com.example.Account.type.TransactionResultType;
+import com.example.Account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액을 DB 밖(redis, 저널)에서 바꾼 뒤 DB 에 나중에 반영할 성공 거래 기록
+ */
+@Getter
+@AllArgsConstructor
+public class LedgerRecord {
+    private final String transactionId;
+    private final TransactionType transactionType;
+    private final Long accountId;
+    private final Long amount;
+    private final Long balanceSnapshot;
+    private final LocalDateTime transactedAt;
+    private final String accountNumber;
+    // 취소 거래의 원거래 id (사용 거래는 null)
+    private final String originalTransactionId;
+
+    // 취소 검증용. 계좌는 id 와 계좌 번호만 채운다.
+    public Transaction toEntity() {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(TransactionResultType.S)
+                .account(Account.builder().id(accountId).accountNumber(accountNumber).build())
+                .amount(amount)
+                .balanceSnapshot(balanceSnapshot)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .originalTransactionId(originalTransactionId)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.Account.service.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC 로 직접 저장하는 거래 기록(FailedTransactionWriter, LedgerBatchWriter)의 id 를 transaction_seq 에서 블록 단위로 받는다.
+ * Transaction 엔티티의 PooledSequenceGenerator 와 같은 pooled-lo 방식으로, 시퀀스 값 하나가 [값, 값 + allocation-size) 블록이다.
+ * 시퀀스는 allocation-size 건마다 한 번만 조회하고, 남은 id 는 다음 batch 에서 이어서 쓴다.
+ * 엔티티 생성기와 블록이 겹치지 않으려면 시퀀스의 증가값(increment by)이 account.id.allocation-size 와 같아야 한다.
+ * (create-drop 스키마는 Hibernate 가 이 값으로 시퀀스를 만들고, 직접 관리하는 스키마는 같은 값으로 만들어야 함)
+ * 시퀀스 조회 SQL 은 Hibernate Dialect 의 문법을 사용한다. (JpaIdGeneratorConfiguration)
+ */
+public class TransactionSequence {
+    public static final String SEQUENCE_NAME = "transaction_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    // 받아 둔 블록에서 다음에 줄 id 와 블록의 끝 (끝은 포함하지 않음)
+    private long next;
+    private long end;
+
+    public TransactionSequence(JdbcTemplate jdbcTemplate, String nextValueSql, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = nextValueSql;
+        this.allocationSize = allocationSize;
+    }
+
+    public synchronized long[] next(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (next == end) {
+                Long blockStart = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                next = blockStart;
+                end = blockStart + allocationSize;
+            }
+            ids[i] = next++;
+        }
+        return ids;
+    }
+}
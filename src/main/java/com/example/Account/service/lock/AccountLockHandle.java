@@ -0,0 +1,21 @@
+package com.example.Account.service.lock;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 취득한 계좌 lock
+ * lock 을 잡은 주체(스레드 또는 비동기 요청)를 기억하고, 그 주체가 소유한 lock 만 해제한다.
+ * 여러 번 해제해도 한 번만 해제된다.
+ */
+public interface AccountLockHandle {
+    String getAccountNumber();
+
+    // 해제하지 않았고, lease 만료 등으로 소유권을 잃지 않았으면 true
+    boolean isHeld();
+
+    CompletableFuture<Void> releaseAsync();
+
+    default void release() {
+        releaseAsync().join();
+    }
+}
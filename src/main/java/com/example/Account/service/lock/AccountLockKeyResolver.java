@@ -0,0 +1,64 @@
+package com.example.Account.service.lock;
+
+import com.example.Account.aop.AccountLock;
+import com.example.Account.aop.AccountLockIdInterface;
+import com.example.Account.exception.AccountException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.Account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * @AccountLock 대상 계좌 번호 결정
+ * key 가 있으면 메소드 인자를 변수로 하는 SpEL 로 계산하고 (예: "#request.accountNumber", "#accountNumber"),
+ * 없으면 AccountLockIdInterface 를 구현한 인자의 계좌 번호를 사용한다.
+ */
+@Component
+public class AccountLockKeyResolver {
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    public String resolve(ProceedingJoinPoint pjp, AccountLock accountLock) {
+        String accountNumber = StringUtils.hasText(accountLock.key())
+                ? evaluate(pjp, accountLock.key())
+                : fromLockIdArgument(pjp.getArgs());
+
+        if (!StringUtils.hasText(accountNumber)) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        return accountNumber;
+    }
+
+    private String evaluate(ProceedingJoinPoint pjp, String key) {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, method, pjp.getArgs(), parameterNameDiscoverer);
+
+        Object value = expressions.computeIfAbsent(key, parser::parseExpression)
+                .getValue(context);
+        return value == null ? null : value.toString();
+    }
+
+    private static String fromLockIdArgument(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof AccountLockIdInterface) {
+                return ((AccountLockIdInterface) arg).getAccountNumber();
+            }
+        }
+        throw new IllegalStateException(
+                "@AccountLock requires a key or an AccountLockIdInterface argument");
+    }
+}
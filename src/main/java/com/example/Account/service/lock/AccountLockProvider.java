@@ -0,0 +1,27 @@
+package com.example.Account.service.lock;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 계좌 lock 구현체
+ * account.lock.provider 설정으로 선택한다.
+ * - redis (기본값) : Redisson 분산 lock, 여러 인스턴스로 운영할 때 사용
+ * - local : JVM 내부 striped lock, 단일 인스턴스로 운영할 때 사용
+ * - none : lock 을 잡지 않음, Account 의 @Version 충돌 시 TransactionService 에서 재시도
+ */
+public interface AccountLockProvider {
+    // options 의 대기 시간 안에 취득하지 못하면 empty
+    Optional<AccountLockHandle> tryLock(String accountNumber, LockOptions options)
+            throws InterruptedException;
+
+    /**
+     * 요청 스레드를 점유하지 않는 lock 취득 (account.transaction.execution=async)
+     * 취득과 해제가 서로 다른 스레드에서 실행될 수 있으므로 스레드에 묶인 lock(local)은 지원하지 않는다.
+     */
+    default CompletableFuture<Optional<AccountLockHandle>> tryLockAsync(
+            String accountNumber, LockOptions options) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support async lock"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.Account.service.lock;
+
+import com.example.Account.metrics.AccountMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 비동기 실행 모드의 @AccountLock
+ * lock 대기는 스레드 없이 기다리고, lock 을 잡은 뒤의 작업(JDBC)만 전용 스레드 풀에서 실행한다.
+ * 특정 계좌에 요청이 몰려 lock 대기가 길어져도 Tomcat 스레드나 작업 스레드가 묶이지 않는다.
+ * 작업 스레드 수는 DB 커넥션 풀 크기 정도로 맞춘다.
+ * lock 취득과 해제가 서로 다른 스레드에서 실행되므로 스레드에 묶인 local lock 과는 함께 쓸 수 없다. (기동 실패)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "account.transaction.execution", havingValue = "async")
+public class AsyncAccountLockExecutor {
+    private final LockService lockService;
+    private final LatencyInjector latencyInjector;
+    private final AccountMetrics accountMetrics;
+    private final ExecutorService executor;
+
+    public AsyncAccountLockExecutor(
+            LockService lockService,
+            LatencyInjector latencyInjector,
+            AccountMetrics accountMetrics,
+            @Value("${account.transaction.async.threads:16}") int threads,
+            @Value("${account.transaction.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${account.lock.provider:redis}") String lockProvider) {
+        if ("local".equals(lockProvider)) {
+            throw new IllegalStateException(
+                    "account.transaction.execution=async does not support account.lock.provider=local");
+        }
+        this.lockService = lockService;
+        this.latencyInjector = latencyInjector;
+        this.accountMetrics = accountMetrics;
+        this.executor = new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> execute(String endpoint, String accountNumber,
+                                            LockOptions options, Supplier<T> task) {
+        return lockService.lockAsync(accountNumber, options)
+                .thenCompose(handle -> {
+                    long lockedAt = System.nanoTime();
+                    return submit(endpoint, task)
+                            .whenComplete((result, e) -> {
+                                unlock(handle);
+                                accountMetrics.recordLockHold(endpoint, System.nanoTime() - lockedAt);
+                            });
+                });
+    }
+
+    private <T> CompletableFuture<T> submit(String endpoint, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                injectLatency(endpoint);
+
+                long start = System.nanoTime();
+                boolean success = false;
+                try {
+                    T result = task.get();
+                    success = true;
+                    return result;
+                } finally {
+                    accountMetrics.recordServiceTime(endpoint, success, System.nanoTime() - start);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // 작업 큐가 가득 찬 경우에도 잡은 lock 은 해제되어야 함
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void injectLatency(String endpoint) {
+        try {
+            latencyInjector.inject(endpoint);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private void unlock(AccountLockHandle handle) {
+        lockService.unlockAsync(handle)
+                .exceptionally(e -> {
+                    log.error("Account unlock failed", e);
+                    return null;
+                });
+    }
+}
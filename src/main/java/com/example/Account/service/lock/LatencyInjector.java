@@ -0,0 +1,40 @@
+package com.example.Account.service.lock;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 테스트용 지연 주입
+ * latency-injection.delays 에 endpoint(컨트롤러 메소드 이름) 별 지연 시간(ms)을 설정하면
+ * 계좌 lock 을 잡은 상태에서 그 시간만큼 대기한다. 기본값은 비활성화.
+ */
+@Slf4j
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "latency-injection")
+public class LatencyInjector {
+    private boolean enabled;
+
+    private Map<String, Long> delays = new HashMap<>();
+
+    public void inject(String endpoint) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+
+        Long delay = delays.get(endpoint);
+        if (delay == null || delay <= 0) {
+            return;
+        }
+
+        log.debug("Injecting {}ms latency into {}", delay, endpoint);
+        Thread.sleep(delay);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.Account.service.lock;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM 내부 lock 핸들
+ * ReentrantLock 은 취득한 스레드에서만 해제할 수 있으므로 다른 스레드의 해제는 거부하고,
+ * unlock 이 성공한 뒤에만 해제 상태로 바꾼다.
+ */
+class LocalAccountLockHandle implements AccountLockHandle {
+    @Getter
+    private final String accountNumber;
+    private final ReentrantLock lock;
+    private final Thread owner;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    // lock 을 취득한 스레드에서 생성
+    LocalAccountLockHandle(String accountNumber, ReentrantLock lock) {
+        this.accountNumber = accountNumber;
+        this.lock = lock;
+        this.owner = Thread.currentThread();
+    }
+
+    @Override
+    public boolean isHeld() {
+        return !released.get();
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseAsync() {
+        if (Thread.currentThread() != owner) {
+            return CompletableFuture.failedFuture(new IllegalMonitorStateException(
+                    "Local account lock must be released by the thread that acquired it"));
+        }
+        if (!released.get()) {
+            lock.unlock();
+            released.set(true);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
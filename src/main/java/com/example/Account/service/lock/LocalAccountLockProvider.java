@@ -0,0 +1,47 @@
+package com.example.Account.service.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 인스턴스용 계좌 lock
+ * 계좌 번호를 해시해서 고정된 개수(stripes)의 ReentrantLock 중 하나에 매핑한다.
+ * 계좌 수와 상관없이 lock 객체 수가 일정하고, 다른 계좌가 같은 stripe 를 공유할 수 있다.
+ * JVM 내부 lock 은 만료되지 않으므로 lease 시간은 사용하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "local")
+public class LocalAccountLockProvider implements AccountLockProvider {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public LocalAccountLockProvider(
+            @Value("${account.lock.local.stripes:1024}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public Optional<AccountLockHandle> tryLock(String accountNumber, LockOptions options)
+            throws InterruptedException {
+        ReentrantLock lock = getLock(accountNumber);
+        if (!lock.tryLock(options.getWaitTimeMs(), TimeUnit.MILLISECONDS)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LocalAccountLockHandle(accountNumber, lock));
+    }
+
+    private ReentrantLock getLock(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+}
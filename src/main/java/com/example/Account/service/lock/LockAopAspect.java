@@ -1,6 +1,7 @@
 package com.example.Account.service.lock;
 
-import com.example.Account.aop.AccountLockIdInterface;
+import com.example.Account.aop.AccountLock;
+import com.example.Account.metrics.AccountMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -14,19 +15,42 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final AccountLockKeyResolver accountLockKeyResolver;
+    private final LatencyInjector latencyInjector;
+    private final AccountMetrics accountMetrics;
 
-    @Around("@annotation(com.example.Account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
-            AccountLockIdInterface request
+            AccountLock accountLock
     ) throws Throwable {
-        // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        String endpoint = pjp.getSignature().getName();
+        String accountNumber = accountLockKeyResolver.resolve(pjp, accountLock);
+
+        // lock 취득 시도 (@AccountLock 의 대기 시간, lease 시간, 정책 적용)
+        AccountLockHandle handle = lockService.lock(accountNumber,
+                LockOptions.from(accountLock));
+        long lockedAt = System.nanoTime();
         try {
-            return pjp.proceed();
+            // latency profile 에서만 lock 을 잡은 채로 지연을 주입한다.
+            latencyInjector.inject(endpoint);
+            return proceedWithMetrics(pjp, endpoint);
         } finally {
             // lock 해제
-            lockService.unlock(request.getAccountNumber());
+            lockService.unlock(handle);
+            accountMetrics.recordLockHold(endpoint, System.nanoTime() - lockedAt);
+        }
+    }
+
+    private Object proceedWithMetrics(ProceedingJoinPoint pjp, String endpoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = pjp.proceed();
+            success = true;
+            return result;
+        } finally {
+            accountMetrics.recordServiceTime(endpoint, success, System.nanoTime() - start);
         }
     }
 }
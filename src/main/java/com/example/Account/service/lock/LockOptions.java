@@ -0,0 +1,35 @@
+package com.example.Account.service.lock;
+
+import com.example.Account.aop.AccountLock;
+import com.example.Account.type.LockPolicy;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * lock 취득 옵션 (대기 시간, lease 시간)
+ * @AccountLock 설정에서 만들거나, 어노테이션이 없는 경로(일괄 처리 등)는 기본값을 사용한다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LockOptions {
+    public static final long DEFAULT_WAIT_TIME_MS = 1000L;
+    public static final long WATCHDOG_LEASE_TIME = -1L;
+
+    private final long waitTimeMs;
+    private final long leaseTimeMs;
+
+    public static LockOptions defaults() {
+        return new LockOptions(DEFAULT_WAIT_TIME_MS, WATCHDOG_LEASE_TIME);
+    }
+
+    public static LockOptions of(long waitTimeMs, long leaseTimeMs) {
+        return new LockOptions(waitTimeMs, leaseTimeMs);
+    }
+
+    public static LockOptions from(AccountLock accountLock) {
+        long waitTimeMs = accountLock.policy() == LockPolicy.FAIL_FAST
+                ? 0L : accountLock.tryLocTime();
+        return new LockOptions(waitTimeMs, accountLock.leaseTime());
+    }
+}
@@ -1,45 +1,84 @@
 package com.example.Account.service.lock;
 
 import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
 import com.example.Account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 계좌 lock 취득/해제
+ * 취득하지 못한 경우(대기 시간 초과, redis 오류 등)는 모두 ACCOUNT_TRANSACTION_LOCK 으로 실패시켜
+ * lock 없이 잔액을 변경하는 일이 없도록 한다. 해제는 취득한 핸들로만 한다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-    private final RedissonClient redissonClient;
+    private final AccountLockProvider accountLockProvider;
+    private final AccountMetrics accountMetrics;
 
-    public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+    public AccountLockHandle lock(String accountNumber) {
+        return lock(accountNumber, LockOptions.defaults());
+    }
+
+    public AccountLockHandle lock(String accountNumber, LockOptions options) {
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+        long start = System.nanoTime();
+        Optional<AccountLockHandle> handle = Optional.empty();
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS); // leasetime 후 아무 것도 안하면 lock 해제, waitTime 동안 lock이 해제 되지 못하면 취득하지 못함
-            if (!isLock) {
-                log.error("=================Lock acquisition failed==================");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
-            }
-        } catch (AccountException e) {
-            throw e;
-        } catch (
-                Exception e) {
-            log.error("Redis lock failed");
+            handle = accountLockProvider.tryLock(accountNumber, options);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Account lock interrupted", e);
+        } catch (RuntimeException e) {
+            log.error("Account lock failed", e);
+        } finally {
+            accountMetrics.recordLockWait(System.nanoTime() - start, handle.isPresent());
         }
+
+        return handle.orElseThrow(LockService::lockFailed);
+    }
+
+    public void unlock(AccountLockHandle handle) {
+        log.debug("Unlock for accountNumber : {}", handle.getAccountNumber());
+        handle.release();
+    }
+
+    public CompletableFuture<AccountLockHandle> lockAsync(String accountNumber, LockOptions options) {
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+        long start = System.nanoTime();
+        CompletableFuture<Optional<AccountLockHandle>> future;
+        try {
+            future = accountLockProvider.tryLockAsync(accountNumber, options);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        return future.handle((handle, e) -> {
+            boolean acquired = e == null && handle.isPresent();
+            accountMetrics.recordLockWait(System.nanoTime() - start, acquired);
+            if (e != null) {
+                log.error("Account lock failed", e);
+                throw lockFailed();
+            }
+            return handle.orElseThrow(LockService::lockFailed);
+        });
     }
 
-    public void unlock(String accountNumber) {
-        log.debug("Unlock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    public CompletableFuture<Void> unlockAsync(AccountLockHandle handle) {
+        log.debug("Async unlock for accountNumber : {}", handle.getAccountNumber());
+        return handle.releaseAsync();
     }
 
-    private static String getLockKey(String accountNumber) {
-        return "ACLK : " + accountNumber;
+    private static AccountException lockFailed() {
+        log.error("=================Lock acquisition failed==================");
+        return new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
     }
 }
@@ -0,0 +1,47 @@
+package com.example.Account.service.lock;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 낙관적 lock 모드용
+ * 동시 수정은 Account.version 으로 감지하고 TransactionService 의 재시도로 해결한다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "none")
+public class NoOpAccountLockProvider implements AccountLockProvider {
+    @Override
+    public Optional<AccountLockHandle> tryLock(String accountNumber, LockOptions options) {
+        return Optional.of(new NoOpAccountLockHandle(accountNumber));
+    }
+
+    @Override
+    public CompletableFuture<Optional<AccountLockHandle>> tryLockAsync(
+            String accountNumber, LockOptions options) {
+        return CompletableFuture.completedFuture(tryLock(accountNumber, options));
+    }
+
+    @RequiredArgsConstructor
+    private static class NoOpAccountLockHandle implements AccountLockHandle {
+        @Getter
+        private final String accountNumber;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public boolean isHeld() {
+            return !released.get();
+        }
+
+        @Override
+        public CompletableFuture<Void> releaseAsync() {
+            released.set(true);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Account.service.lock;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redisson lock 핸들
+ * Redisson 은 스레드 id 로 소유자를 구분하므로, 취득할 때의 ownerId 로 해제한다.
+ */
+@Slf4j
+class RedissonAccountLockHandle implements AccountLockHandle {
+    @Getter
+    private final String accountNumber;
+    private final RLock lock;
+    private final long ownerId;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    RedissonAccountLockHandle(String accountNumber, RLock lock, long ownerId) {
+        this.accountNumber = accountNumber;
+        this.lock = lock;
+        this.ownerId = ownerId;
+    }
+
+    @Override
+    public boolean isHeld() {
+        return !released.get() && lock.isHeldByThread(ownerId);
+    }
+
+    @Override
+    public CompletableFuture<Void> releaseAsync() {
+        if (!released.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return lock.unlockAsync(ownerId)
+                .toCompletableFuture()
+                .exceptionally(e -> {
+                    // 이미 소유하지 않은 lock (lease 만료, redis 재시작 등) 은 해제할 것이 없음
+                    log.error("Account lock was not held on release : {}", accountNumber, e);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Account.service.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.lock.provider", havingValue = "redis", matchIfMissing = true)
+public class RedissonAccountLockProvider implements AccountLockProvider {
+    // 비동기 요청의 lock 소유자 id. 실제 스레드 id 와 겹치지 않는 구간을 사용
+    private static final long ASYNC_OWNER_ID_OFFSET = 1L << 62;
+
+    private final RedissonClient redissonClient;
+    private final AtomicLong asyncOwnerIds = new AtomicLong(ASYNC_OWNER_ID_OFFSET);
+
+    // waitTime 동안 lock이 해제 되지 못하면 취득하지 못함
+    // leaseTime 이 -1 이면 watchdog 이 lock 을 잡고 있는 동안 lease 를 연장 (lockWatchdogTimeout, 기본 30초)
+    // 작업이 길어져도 lock 이 중간에 풀리지 않고, 프로세스가 죽으면 watchdog timeout 후 해제됨
+    @Override
+    public Optional<AccountLockHandle> tryLock(String accountNumber, LockOptions options)
+            throws InterruptedException {
+        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        if (!lock.tryLock(options.getWaitTimeMs(), options.getLeaseTimeMs(), TimeUnit.MILLISECONDS)) {
+            return Optional.empty();
+        }
+        return Optional.of(new RedissonAccountLockHandle(
+                accountNumber, lock, Thread.currentThread().getId()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<AccountLockHandle>> tryLockAsync(
+            String accountNumber, LockOptions options) {
+        // 대기는 redis pub/sub 으로 처리되어 기다리는 동안 스레드를 점유하지 않음
+        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        long ownerId = asyncOwnerIds.incrementAndGet();
+        return lock.tryLockAsync(options.getWaitTimeMs(), options.getLeaseTimeMs(),
+                        TimeUnit.MILLISECONDS, ownerId)
+                .toCompletableFuture()
+                .thenApply(locked -> locked
+                        ? Optional.of(new RedissonAccountLockHandle(accountNumber, lock, ownerId))
+                        : Optional.empty());
+    }
+
+    private static String getLockKey(String accountNumber) {
+        return "ACLK : " + accountNumber;
+    }
+}
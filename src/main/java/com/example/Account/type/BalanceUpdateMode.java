@@ -0,0 +1,6 @@
+package com.example.Account.type;
+
+public enum BalanceUpdateMode {
+    ENTITY, // 엔티티 조회 후 변경 감지(dirty checking)로 반영
+    ATOMIC  // 조건부 update 한 번으로 검증과 반영을 동시에 처리
+}
@@ -11,15 +11,23 @@ public enum ErrorCode {
     USER_NOT_FOUND("사용자가 없습니다."),
     ACCOUNT_NOT_FOUND("계좌가 없습니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
+    TRANSACTION_RESULT_TIMEOUT("처리 결과를 기다리는 시간이 초과되었습니다. 거래 내역을 확인해 주세요."),
+    ACCOUNT_CONCURRENT_UPDATE("다른 거래와 동시에 잔액을 변경해서 처리하지 못했습니다. 다시 시도해 주세요."),
+    ACCOUNT_BALANCE_UNAVAILABLE("계좌 잔액을 불러오지 못했습니다. 다시 시도해 주세요."),
     TRANSACTION_NOT_FOUND("해당 거래가 없습니다."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 계좌 잔액보다 큽니다."),
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다."),
     TOO_OLD_ORDER_TO_CANCEL("1년 이내 거래만 취소 가능합니다."),
+    TRANSACTION_ALREADY_CANCELED("이미 취소된 거래입니다."),
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유자가 다릅니다."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
-    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다.");
+    MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    ACCOUNT_NUMBER_EXHAUSTED("발급 가능한 계좌 번호가 없습니다."),
+    BATCH_SIZE_EXCEEDED("한 번에 처리할 수 있는 거래 수를 초과했습니다."),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("같은 멱등성 키의 요청을 처리 중입니다."),
+    IDEMPOTENCY_KEY_REUSED("멱등성 키가 다른 요청에 이미 사용되었습니다.");
 
     private final String description;
 }
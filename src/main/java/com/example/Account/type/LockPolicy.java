@@ -0,0 +1,6 @@
+package com.example.Account.type;
+
+public enum LockPolicy {
+    WAIT,      // 다른 요청이 lock 을 잡고 있으면 tryLocTime 동안 기다림
+    FAIL_FAST  // 기다리지 않고 바로 ACCOUNT_TRANSACTION_LOCK 으로 실패
+}
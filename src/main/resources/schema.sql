@@ -0,0 +1,2 @@
+-- 계좌 번호 블록 채번용 시퀀스 (AccountNumberGenerator)
+create sequence if not exists account_number_seq start with 1 increment by 1;
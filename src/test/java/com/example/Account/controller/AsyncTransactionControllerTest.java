@@ -0,0 +1,73 @@
+package com.example.Account.controller;
+
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionExecutor;
+import com.example.Account.service.TransactionService;
+import com.example.Account.service.lock.AsyncAccountLockExecutor;
+import com.example.Account.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AsyncTransactionController.class,
+        properties = "account.transaction.execution=async")
+class AsyncTransactionControllerTest {
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private TransactionExecutor transactionExecutor;
+
+    @MockBean
+    private AsyncAccountLockExecutor asyncAccountLockExecutor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failUseBalance_lockNotAcquired() throws Exception {
+        //given
+        CompletableFuture<Object> lockFailure = new CompletableFuture<>();
+        lockFailure.completeExceptionally(
+                new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        given(asyncAccountLockExecutor.execute(eq("useBalance"), eq("1000000000"),
+                any(), any(Supplier.class)))
+                .willReturn(lockFailure);
+
+        //when
+        MvcResult result = mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "1000000000", 12345L)
+                        )))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+    }
+}
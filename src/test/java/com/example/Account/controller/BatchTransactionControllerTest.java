@@ -0,0 +1,79 @@
+package com.example.Account.controller;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.service.BatchTransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BatchTransactionController.class)
+class BatchTransactionControllerTest {
+    @MockBean
+    private BatchTransactionService batchTransactionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void successProcessBatch() throws Exception {
+        //given
+        doAnswer(invocation -> {
+            Consumer<BatchTransaction.Response> consumer = invocation.getArgument(1);
+            consumer.accept(BatchTransaction.Response.builder()
+                    .index(0)
+                    .transactionType(USE)
+                    .transactionResult(S)
+                    .accountNumber("1000000000")
+                    .transactionId("transactionId")
+                    .amount(12345L)
+                    .build());
+            return null;
+        }).when(batchTransactionService).process(anyList(), any(Consumer.class));
+
+        List<BatchTransaction.Item> items = Collections.singletonList(
+                new BatchTransaction.Item(
+                        new UseBalance.Request(1L, "1000000000", 12345L), null));
+
+        //when
+        MvcResult result = mockMvc.perform(post("/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchTransaction.Request(items))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$[0].amount").value(12345));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.Account.controller;
 import com.example.Account.dto.CancelBalance;
 import com.example.Account.dto.TransactionDto;
 import com.example.Account.dto.UseBalance;
+import com.example.Account.service.TransactionExecutor;
 import com.example.Account.service.TransactionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -30,6 +31,9 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionExecutor transactionExecutor;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -39,7 +43,7 @@ class TransactionControllerTest {
     @Test
     void successUseBalance() throws Exception {
         //given
-        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+        given(transactionExecutor.useBalance(anyLong(), anyString(), anyLong()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1000000000")
                         .transactionResultType(S)
@@ -65,7 +69,7 @@ class TransactionControllerTest {
     @Test
     void successCancelBalance() throws Exception {
         //given
-        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
+        given(transactionExecutor.cancelBalance(anyString(), anyString(), anyLong()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1000000000")
                         .transactionResultType(S)
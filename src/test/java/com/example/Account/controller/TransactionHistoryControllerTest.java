@@ -0,0 +1,69 @@
+package com.example.Account.controller;
+
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.service.TransactionHistoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TransactionHistoryController.class)
+class TransactionHistoryControllerTest {
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void successGetTransactionHistory() throws Exception {
+        //given
+        given(transactionHistoryService.getAccountId(anyString()))
+                .willReturn(1L);
+        doAnswer(invocation -> {
+            Consumer<TransactionHistory.Item> consumer = invocation.getArgument(4);
+            consumer.accept(TransactionHistory.Item.builder()
+                    .id(10L)
+                    .transactionType(USE)
+                    .transactionResultType(S)
+                    .amount(1000L)
+                    .balanceSnapshot(9000L)
+                    .transactionId("transactionId")
+                    .transactedAt(LocalDateTime.now())
+                    .build());
+            return null;
+        }).when(transactionHistoryService).streamHistory(eq(1L),
+                any(), any(), eq(100), any(Consumer.class));
+
+        //when
+        MvcResult result = mockMvc.perform(get("/account/1000000000/transactions")
+                        .param("size", "100"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[0].transactionType").value("USE"))
+                .andExpect(jsonPath("$[0].balanceSnapshot").value(9000))
+                .andExpect(jsonPath("$[0].transactionId").value("transactionId"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Account.metrics;
+
+import com.example.Account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AccountMetrics accountMetrics = new AccountMetrics(meterRegistry);
+
+    @Test
+    void recordLockWait_countFailure() {
+        //given
+        //when
+        accountMetrics.recordLockWait(TimeUnit.MILLISECONDS.toNanos(3), true);
+        accountMetrics.recordLockWait(TimeUnit.SECONDS.toNanos(1), false);
+
+        //then
+        assertEquals(1, meterRegistry.get("account.lock.wait")
+                .tag("result", "acquired").timer().count());
+        assertEquals(1, meterRegistry.get("account.lock.wait")
+                .tag("result", "failed").timer().count());
+        assertEquals(1.0, meterRegistry.get("account.lock.acquisition.failures")
+                .tag("errorCode", "ACCOUNT_TRANSACTION_LOCK").counter().count());
+    }
+
+    @Test
+    void recordHoldAndServiceTimePerEndpoint() {
+        //given
+        //when
+        accountMetrics.recordLockHold("useBalance", TimeUnit.MILLISECONDS.toNanos(10));
+        accountMetrics.recordServiceTime("useBalance", true, TimeUnit.MILLISECONDS.toNanos(8));
+        accountMetrics.recordServiceTime("cancelBalance", false, TimeUnit.MILLISECONDS.toNanos(4));
+
+        //then
+        assertEquals(10.0, meterRegistry.get("account.lock.hold")
+                .tag("endpoint", "useBalance").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("account.endpoint.service")
+                .tags("endpoint", "useBalance", "result", "S").timer().count());
+        assertEquals(1, meterRegistry.get("account.endpoint.service")
+                .tags("endpoint", "cancelBalance", "result", "F").timer().count());
+    }
+
+    @Test
+    void recordCommitTimePerTransaction() {
+        //given
+        //when
+        accountMetrics.recordCommitTime("TransactionService.useBalance", true,
+                TimeUnit.MILLISECONDS.toNanos(2));
+        accountMetrics.recordCommitTime("TransactionService.useBalance", false,
+                TimeUnit.MILLISECONDS.toNanos(5));
+
+        //then
+        assertEquals(2.0, meterRegistry.get("account.db.commit")
+                .tags("transaction", "TransactionService.useBalance", "result", "committed")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("account.db.commit")
+                .tags("transaction", "TransactionService.useBalance", "result", "failed")
+                .timer().count());
+    }
+
+    @Test
+    void countErrorPerErrorCode() {
+        //given
+        //when
+        accountMetrics.countError(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        accountMetrics.countError(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        accountMetrics.countError(ErrorCode.ACCOUNT_NOT_FOUND);
+
+        //then
+        assertEquals(2.0, meterRegistry.get("account.errors")
+                .tag("errorCode", "AMOUNT_EXCEED_BALANCE").counter().count());
+        assertEquals(1.0, meterRegistry.get("account.errors")
+                .tag("errorCode", "ACCOUNT_NOT_FOUND").counter().count());
+    }
+}
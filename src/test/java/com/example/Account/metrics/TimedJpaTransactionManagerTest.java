@@ -0,0 +1,42 @@
+package com.example.Account.metrics;
+
+import com.example.Account.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Transactional 메소드의 커밋 시간이 메소드별로 기록되는지 확인. data.sql 의 사용자 4 를 사용한다.
+ */
+@SpringBootTest
+class TimedJpaTransactionManagerTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void recordCommitTimeOfTransactionalMethod() {
+        //given
+        assertInstanceOf(TimedJpaTransactionManager.class, transactionManager);
+
+        //when
+        accountService.createAccount(4L, 0L);
+
+        //then
+        Timer timer = meterRegistry.get("account.db.commit")
+                .tags("transaction", "AccountService.createAccount", "result", "committed")
+                .timer();
+        assertTrue(timer.count() >= 1);
+    }
+}
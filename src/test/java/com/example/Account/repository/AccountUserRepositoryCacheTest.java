@@ -0,0 +1,149 @@
+package com.example.Account.repository;
+
+import com.example.Account.domain.AccountUser;
+import com.example.Account.dto.AccountUserDto;
+import com.example.Account.service.AccountUserCacheInvalidator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account.config.CacheConfiguration.ACCOUNT_USER_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 사용자 캐시의 적중/미스, 저장/삭제 시 제거, TTL 확인
+ * data.sql 의 사용자 4 를 사용하고, 삭제는 시퀀스와 겹치지 않는 id 로 직접 넣은 사용자로 확인한다.
+ */
+@SpringBootTest
+class AccountUserRepositoryCacheTest {
+    private static final long DELETABLE_USER_ID = 900_001L;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private AccountUserCacheInvalidator accountUserCacheInvalidator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        accountUserCacheInvalidator.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void missThenHit() {
+        //when
+        AccountUserDto first = accountUserRepository.findDtoById(4L).orElseThrow();
+        long queriesAfterMiss = statistics.getPrepareStatementCount();
+        AccountUserDto second = accountUserRepository.findDtoById(4L).orElseThrow();
+
+        //then, 두 번째는 DB 를 거치지 않고, 캐시에는 엔티티가 아닌 DTO 가 들어 있음
+        assertEquals(1, queriesAfterMiss);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertSame(first, second);
+        assertInstanceOf(AccountUserDto.class, nativeCache().getIfPresent(4L));
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        //when
+        accountUserRepository.findDtoById(DELETABLE_USER_ID + 1);
+
+        //then
+        assertNull(nativeCache().getIfPresent(DELETABLE_USER_ID + 1));
+    }
+
+    @Test
+    void evictOnSave() {
+        //given
+        accountUserRepository.findDtoById(4L);
+        AccountUser user = accountUserRepository.findById(4L).orElseThrow();
+
+        //when
+        accountUserRepository.save(user);
+
+        //then
+        assertNull(nativeCache().getIfPresent(4L));
+    }
+
+    @Test
+    void evictAllOnSaveAll() {
+        //given
+        accountUserRepository.findDtoById(4L);
+        AccountUser user = accountUserRepository.findById(4L).orElseThrow();
+
+        //when
+        accountUserRepository.saveAll(Collections.singletonList(user));
+
+        //then
+        assertNull(nativeCache().getIfPresent(4L));
+    }
+
+    @Test
+    void evictOnDelete() {
+        //given
+        jdbcTemplate.update(
+                "insert into account_user(id, name, created_at, updated_at) values (?, ?, now(), now())",
+                DELETABLE_USER_ID, "cache");
+        accountUserRepository.findDtoById(DELETABLE_USER_ID);
+        assertNotNull(nativeCache().getIfPresent(DELETABLE_USER_ID));
+
+        //when
+        accountUserRepository.deleteById(DELETABLE_USER_ID);
+
+        //then
+        assertNull(nativeCache().getIfPresent(DELETABLE_USER_ID));
+        assertFalse(accountUserRepository.findDtoById(DELETABLE_USER_ID).isPresent());
+    }
+
+    @Test
+    void expireAfterWrite() throws InterruptedException {
+        //given, spring.cache.caffeine.spec 의 TTL
+        Policy.Expiration<Object, Object> expiration =
+                nativeCache().policy().expireAfterWrite().orElseThrow();
+        long configuredMinutes = expiration.getExpiresAfter(TimeUnit.MINUTES);
+        assertEquals(10L, configuredMinutes);
+
+        expiration.setExpiresAfter(50L, TimeUnit.MILLISECONDS);
+        try {
+            accountUserRepository.findDtoById(4L);
+
+            //when
+            Thread.sleep(200L);
+
+            //then
+            assertNull(nativeCache().getIfPresent(4L));
+        } finally {
+            expiration.setExpiresAfter(configuredMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(ACCOUNT_USER_CACHE)).getNativeCache();
+    }
+}
@@ -3,9 +3,12 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.AccountUserDto;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.service.engine.BalanceEngine;
+import com.example.Account.service.generator.AccountNumberGenerator;
 import com.example.Account.type.AccountStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +28,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -35,6 +41,15 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    @Mock
+    private BalanceEngine balanceEngine;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -45,8 +60,12 @@ class AccountServiceTest {
                 .name("Pobi")
                 .build();
         user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
+        given(accountNumberGenerator.next())
+                .willReturn("1000000008");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -59,7 +78,7 @@ class AccountServiceTest {
         //then
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId());
-        assertEquals(10, captor.getValue().getAccountNumber().length());
+        assertEquals("1000000008", captor.getValue().getAccountNumber());
     }
 
     @Test
@@ -69,8 +88,12 @@ class AccountServiceTest {
                 .name("Pobi")
                 .build();
         user.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
+        given(accountNumberGenerator.next())
+                .willReturn("1000000008");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -83,14 +106,14 @@ class AccountServiceTest {
         //then
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(15L, accountDto.getUserId());
-        assertEquals(10, captor.getValue().getAccountNumber().length());
+        assertEquals("1000000008", captor.getValue().getAccountNumber());
     }
 
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findDtoById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -108,8 +131,10 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder()
                 .name("Pobi").build();
         user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
         given(accountRepository.countByAccountUser(any()))
                 .willReturn(10);
 
@@ -128,8 +153,8 @@ class AccountServiceTest {
                 .name("Pobi")
                 .build();
         user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(user)
@@ -151,7 +176,7 @@ class AccountServiceTest {
     @DisplayName("해당 유저 없음 - 계좌 해지 실패")
     void deleteAccount_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findDtoById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -169,8 +194,8 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder()
                 .name("Pobi").build();
         user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
@@ -192,8 +217,8 @@ class AccountServiceTest {
         AccountUser harry = AccountUser.builder()
                 .name("Harry").build();
         harry.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(harry)
@@ -215,8 +240,8 @@ class AccountServiceTest {
         AccountUser pobi = AccountUser.builder()
                 .name("Pobi").build();
         pobi.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(pobi)
@@ -231,6 +256,35 @@ class AccountServiceTest {
         assertEquals(BALANCE_NOT_EMPTY, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("엔진을 사용하면 잔액은 엔진 기준으로 확인한다.")
+    void deleteAccountFailed_balanceNotEmptyInEngine() {
+        //given, DB 잔액은 0 이지만 엔진의 잔액이 남아 있는 경우
+        AccountUser pobi = AccountUser.builder()
+                .name("Pobi").build();
+        pobi.setId(12L);
+        Account account = Account.builder()
+                .accountUser(pobi)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceEngineProvider.getIfAvailable()).willReturn(balanceEngine);
+        willThrow(new AccountException(BALANCE_NOT_EMPTY))
+                .given(balanceEngine).closeAccount(account);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.deleteAccount(12L, "1000000012"));
+
+        //then
+        assertEquals(BALANCE_NOT_EMPTY, exception.getErrorCode());
+        verify(accountRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("해지 계좌는 해지할 수 없다.")
     void deleteAccountFailed_alreadyUnregistered() {
@@ -238,8 +292,8 @@ class AccountServiceTest {
         AccountUser pobi = AccountUser.builder()
                 .name("Pobi").build();
         pobi.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(pobi)
@@ -278,8 +332,10 @@ class AccountServiceTest {
                         .balance(3000L)
                         .build()
         );
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(pobi);
         given(accountRepository.findByAccountUser(any()))
                 .willReturn(accounts);
 
@@ -299,7 +355,7 @@ class AccountServiceTest {
     @Test
     void failedToGetAccounts() {
         //given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findDtoById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
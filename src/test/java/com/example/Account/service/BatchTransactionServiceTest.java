@@ -0,0 +1,218 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.BatchTransaction;
+import com.example.Account.dto.CancelBalance;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
+import com.example.Account.service.lock.AccountLockHandle;
+import com.example.Account.service.lock.LockService;
+import com.example.Account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.Account.type.TransactionResultType.F;
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransactionServiceTest {
+    @Mock
+    private TransactionExecutor transactionExecutor;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private AccountLockHandle accountLockHandle;
+
+    private BatchTransactionService batchTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        batchTransactionService =
+                new BatchTransactionService(transactionExecutor, lockService,
+                        accountMetrics, 3);
+    }
+
+    @Test
+    void processGroupsItemsByAccountAndLocksOnce() {
+        //given
+        given(lockService.lock(anyString())).willReturn(accountLockHandle);
+        given(transactionExecutor.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> success(invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        given(transactionExecutor.cancelBalance(anyString(), anyString(), anyLong()))
+                .willAnswer(invocation -> success(invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        List<BatchTransaction.Item> items = Arrays.asList(
+                use("1000000000", 100L),
+                use("2000000000", 200L),
+                cancel("1000000000", 300L));
+        List<BatchTransaction.Response> responses = new ArrayList<>();
+
+        //when
+        batchTransactionService.process(items, responses::add);
+
+        //then
+        InOrder inOrder = inOrder(lockService, transactionExecutor);
+        inOrder.verify(lockService).lock("1000000000");
+        inOrder.verify(transactionExecutor).useBalance(1L, "1000000000", 100L);
+        inOrder.verify(transactionExecutor).cancelBalance("transactionId", "1000000000", 300L);
+        inOrder.verify(lockService).unlock(accountLockHandle);
+        inOrder.verify(lockService).lock("2000000000");
+        inOrder.verify(transactionExecutor).useBalance(1L, "2000000000", 200L);
+        inOrder.verify(lockService).unlock(accountLockHandle);
+
+        assertEquals(3, responses.size());
+        assertEquals(0, responses.get(0).getIndex());
+        assertEquals(2, responses.get(1).getIndex());
+        assertEquals(1, responses.get(2).getIndex());
+        assertEquals(S, responses.get(1).getTransactionResult());
+        assertEquals(300L, responses.get(1).getAmount());
+    }
+
+    @Test
+    void emitResultsAfterUnlock() {
+        //given
+        given(lockService.lock(anyString())).willReturn(accountLockHandle);
+        given(transactionExecutor.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> success(invocation.getArgument(1),
+                        invocation.getArgument(2)));
+        List<Boolean> unlockedWhenEmitted = new ArrayList<>();
+
+        //when
+        batchTransactionService.process(Arrays.asList(
+                        use("1000000000", 100L),
+                        use("1000000000", 200L)),
+                response -> unlockedWhenEmitted.add(
+                        mockingDetails(lockService).getInvocations().stream()
+                                .anyMatch(invocation -> invocation.getMethod()
+                                        .getName().equals("unlock"))));
+
+        //then, 응답 쓰기가 느려도 계좌 lock 을 잡고 있지 않음
+        assertEquals(Arrays.asList(true, true), unlockedWhenEmitted);
+    }
+
+    @Test
+    void processContinuesAfterItemFailure() {
+        //given
+        given(lockService.lock(anyString())).willReturn(accountLockHandle);
+        given(transactionExecutor.useBalance(1L, "1000000000", 100L))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        given(transactionExecutor.useBalance(1L, "1000000000", 200L))
+                .willReturn(success("1000000000", 200L));
+        List<BatchTransaction.Response> responses = new ArrayList<>();
+
+        //when
+        batchTransactionService.process(Arrays.asList(
+                use("1000000000", 100L),
+                use("1000000000", 200L)), responses::add);
+
+        //then
+        verify(accountMetrics).countError(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        verify(lockService, times(1)).lock("1000000000");
+        verify(lockService, times(1)).unlock(accountLockHandle);
+        assertEquals(F, responses.get(0).getTransactionResult());
+        assertEquals(USE, responses.get(0).getTransactionType());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, responses.get(0).getErrorCode());
+        assertEquals(S, responses.get(1).getTransactionResult());
+    }
+
+    @Test
+    void processContinuesAfterUnexpectedFailure() {
+        //given
+        given(lockService.lock(anyString())).willReturn(accountLockHandle);
+        given(transactionExecutor.useBalance(1L, "1000000000", 100L))
+                .willThrow(new IllegalStateException("db down"));
+        given(transactionExecutor.useBalance(1L, "1000000000", 200L))
+                .willReturn(success("1000000000", 200L));
+        List<BatchTransaction.Response> responses = new ArrayList<>();
+
+        //when
+        batchTransactionService.process(Arrays.asList(
+                use("1000000000", 100L),
+                use("1000000000", 200L)), responses::add);
+
+        //then, 오류 건도 결과로 남고 다음 건과 lock 해제는 그대로 진행
+        verify(accountMetrics).countError(ErrorCode.INTERNAL_SERER_ERROR);
+        verify(lockService, times(1)).unlock(accountLockHandle);
+        assertEquals(2, responses.size());
+        assertEquals(F, responses.get(0).getTransactionResult());
+        assertEquals(ErrorCode.INTERNAL_SERER_ERROR, responses.get(0).getErrorCode());
+        assertEquals(S, responses.get(1).getTransactionResult());
+    }
+
+    @Test
+    void processFailsAllItemsOfAccountWhenLockFails() {
+        //given
+        given(lockService.lock("1000000000"))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        List<BatchTransaction.Response> responses = new ArrayList<>();
+
+        //when
+        batchTransactionService.process(Arrays.asList(
+                use("1000000000", 100L),
+                cancel("1000000000", 200L)), responses::add);
+
+        //then
+        verify(transactionExecutor, never()).useBalance(anyLong(), anyString(), anyLong());
+        verify(lockService, never()).unlock(any());
+        assertEquals(2, responses.size());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, responses.get(0).getErrorCode());
+        assertEquals(CANCEL, responses.get(1).getTransactionType());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, responses.get(1).getErrorCode());
+    }
+
+    @Test
+    void validateFailed_batchSizeExceeded() {
+        //given
+        BatchTransaction.Request request = new BatchTransaction.Request(
+                new ArrayList<>(Collections.nCopies(4, use("1000000000", 100L))));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> batchTransactionService.validate(request));
+
+        //then
+        assertEquals(ErrorCode.BATCH_SIZE_EXCEEDED, exception.getErrorCode());
+    }
+
+    private static BatchTransaction.Item use(String accountNumber, Long amount) {
+        return new BatchTransaction.Item(
+                new UseBalance.Request(1L, accountNumber, amount), null);
+    }
+
+    private static BatchTransaction.Item cancel(String accountNumber, Long amount) {
+        return new BatchTransaction.Item(null,
+                new CancelBalance.Request("transactionId", accountNumber, amount));
+    }
+
+    private static TransactionDto success(String accountNumber, Long amount) {
+        return TransactionDto.builder()
+                .accountNumber(accountNumber)
+                .transactionResultType(S)
+                .amount(amount)
+                .transactionId("transactionId")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.TransactionDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 지연 로딩 전환 후 요청별로 실행되는 쿼리 수 확인 (Hibernate statistics)
+ * data.sql 의 사용자(1: 거래 조회, 2: 계좌 목록, 3: 잔액 사용)를 사용한다.
+ */
+@SpringBootTest
+class QueryCountTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void queryTransaction_singleSelectWithAccount() {
+        //given
+        AccountDto account = accountService.createAccount(1L, 10000L);
+        TransactionDto used = transactionService.useBalance(1L,
+                account.getAccountNumber(), 100L);
+        statistics.clear();
+
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(
+                used.getTransactionId());
+
+        //then, 거래와 계좌를 조인한 select 한 번
+        assertEquals(account.getAccountNumber(), transactionDto.getAccountNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void getAccountsByUserId_noNPlusOne() {
+        //given
+        accountService.createAccount(2L, 0L);
+        accountService.createAccount(2L, 0L);
+        accountService.createAccount(2L, 0L);
+        statistics.clear();
+
+        //when
+        List<AccountDto> accounts = accountService.getAccountByUserId(2L);
+
+        //then, 사용자 조회(캐시 미스 시) + 계좌 목록 조회, 계좌 수와 무관
+        assertEquals(3, accounts.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    void useBalance_noLazyLoading() {
+        //given
+        AccountDto account = accountService.createAccount(3L, 10000L);
+        statistics.clear();
+
+        //when
+        transactionService.useBalance(3L, account.getAccountNumber(), 100L);
+
+        //then, 소유주 비교는 프록시 id 로 하므로 추가 조회 없음
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.engine.BalanceEngine;
+import com.example.Account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static com.example.Account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExecutorTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private ObjectProvider<BalanceEngine> balanceEngineProvider;
+
+    @Mock
+    private BalanceEngine balanceEngine;
+
+    @InjectMocks
+    private TransactionExecutor transactionExecutor;
+
+    @Test
+    void useBalance() {
+        //given
+        given(transactionService.useBalance(1L, "1000000000", 100L))
+                .willReturn(success(100L));
+
+        //when
+        TransactionDto transactionDto =
+                transactionExecutor.useBalance(1L, "1000000000", 100L);
+
+        //then
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(100L, transactionDto.getAmount());
+    }
+
+    @Test
+    void useBalanceThroughBalanceEngine() {
+        //given
+        given(balanceEngineProvider.getIfAvailable()).willReturn(balanceEngine);
+        given(balanceEngine.useBalance(1L, "1000000000", 100L))
+                .willReturn(success(100L));
+
+        //when
+        transactionExecutor.useBalance(1L, "1000000000", 100L);
+
+        //then, 엔진이 설정되면 DB 잔액을 직접 바꾸지 않음
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    void useBalanceFailed_saveFailedTransaction() {
+        //given
+        given(transactionService.useBalance(1L, "1000000000", 100L))
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionExecutor.useBalance(1L, "1000000000", 100L));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionService).saveFailedUseTransaction("1000000000", 100L);
+    }
+
+    @Test
+    void useBalanceFailed_resultTimeoutIsNotSaved() {
+        //given
+        given(balanceEngineProvider.getIfAvailable()).willReturn(balanceEngine);
+        given(balanceEngine.useBalance(1L, "1000000000", 100L))
+                .willThrow(new AccountException(ErrorCode.TRANSACTION_RESULT_TIMEOUT));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionExecutor.useBalance(1L, "1000000000", 100L));
+
+        //then, 엔진이 나중에 커밋할 수 있으므로 실패 거래를 남기지 않음
+        assertEquals(ErrorCode.TRANSACTION_RESULT_TIMEOUT, exception.getErrorCode());
+        verify(transactionService, never()).saveFailedUseTransaction(anyString(), anyLong());
+    }
+
+    @Test
+    void cancelBalanceThroughBalanceEngine() {
+        //given
+        given(balanceEngineProvider.getIfAvailable()).willReturn(balanceEngine);
+        given(balanceEngine.cancelBalance("transactionId", "1000000000", 200L))
+                .willReturn(success(200L));
+
+        //when
+        TransactionDto transactionDto =
+                transactionExecutor.cancelBalance("transactionId", "1000000000", 200L);
+
+        //then
+        assertEquals(200L, transactionDto.getAmount());
+        verify(transactionService, never()).cancelBalance(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void cancelBalanceFailed_saveFailedTransaction() {
+        //given
+        given(transactionService.cancelBalance("transactionId", "1000000000", 200L))
+                .willThrow(new AccountException(ErrorCode.CANCEL_MUST_FULLY));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionExecutor.cancelBalance("transactionId", "1000000000", 200L));
+
+        //then
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+        verify(transactionService).saveFailedCancelTransaction("1000000000", 200L);
+    }
+
+    @Test
+    void cancelBalanceFailed_resultTimeoutIsNotSaved() {
+        //given
+        given(balanceEngineProvider.getIfAvailable()).willReturn(balanceEngine);
+        given(balanceEngine.cancelBalance("transactionId", "1000000000", 200L))
+                .willThrow(new AccountException(ErrorCode.TRANSACTION_RESULT_TIMEOUT));
+
+        //when
+        assertThrows(AccountException.class,
+                () -> transactionExecutor.cancelBalance("transactionId", "1000000000", 200L));
+
+        //then
+        verify(transactionService, never()).saveFailedCancelTransaction(anyString(), anyLong());
+    }
+
+    private static TransactionDto success(Long amount) {
+        return TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionResultType(S)
+                .amount(amount)
+                .transactionId("transactionId")
+                .build();
+    }
+}
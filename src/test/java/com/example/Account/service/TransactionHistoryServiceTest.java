@@ -0,0 +1,86 @@
+package com.example.Account.service;
+
+import com.example.Account.dto.AccountDto;
+import com.example.Account.dto.TransactionHistory;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * keyset 페이징 확인. data.sql 의 사용자 4 를 사용한다.
+ */
+@SpringBootTest
+class TransactionHistoryServiceTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Test
+    void streamHistoryByKeyset() {
+        //given
+        AccountDto account = accountService.createAccount(4L, 10000L);
+        List<String> transactionIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactionIds.add(transactionService.useBalance(4L,
+                    account.getAccountNumber(), 100L).getTransactionId());
+        }
+        Long accountId = transactionHistoryService.getAccountId(account.getAccountNumber());
+
+        //when
+        List<TransactionHistory.Item> firstPage = new ArrayList<>();
+        transactionHistoryService.streamHistory(accountId, null, null, 3, firstPage::add);
+        TransactionHistory.Item last = firstPage.get(firstPage.size() - 1);
+        List<TransactionHistory.Item> secondPage = new ArrayList<>();
+        transactionHistoryService.streamHistory(accountId,
+                last.getTransactedAt(), last.getId(), 3, secondPage::add);
+        List<TransactionHistory.Item> all = new ArrayList<>();
+        transactionHistoryService.streamHistory(accountId, null, null, null, all::add);
+
+        //then
+        assertEquals(3, firstPage.size());
+        assertEquals(2, secondPage.size());
+        assertEquals(5, all.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(transactionIds.get(i), all.get(i).getTransactionId());
+        }
+        assertEquals(transactionIds.get(3), secondPage.get(0).getTransactionId());
+        assertEquals(9500L, all.get(4).getBalanceSnapshot());
+    }
+
+    @Test
+    void getAccountIdFailed_accountNotFound() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionHistoryService.getAccountId("0000000000"));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    void validateCursorFailed_partialCursor() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionHistoryService.validateCursor(
+                        LocalDateTime.now(), null, 10));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.Account.service;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountUserDto;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.FailedTransactionWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.example.Account.type.AccountStatus.IN_USE;
+import static com.example.Account.type.ErrorCode.ACCOUNT_CONCURRENT_UPDATE;
+import static com.example.Account.type.TransactionResultType.S;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * version 충돌 재시도 확인 (@Retryable 은 프록시에서 동작하므로 TransactionService 만 올린 컨텍스트에서 확인)
+ */
+@SpringJUnitConfig
+@TestPropertySource(properties = {
+        "account.optimistic-lock.max-attempts=3",
+        "account.optimistic-lock.backoff-ms=0"
+})
+class TransactionServiceRetryTest {
+    @Configuration
+    @EnableRetry
+    @Import(TransactionService.class)
+    static class RetryTestConfiguration {
+    }
+
+    @MockBean
+    private TransactionRepository transactionRepository;
+
+    @MockBean
+    private AccountRepository accountRepository;
+
+    @MockBean
+    private AccountUserRepository accountUserRepository;
+
+    @MockBean
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @MockBean
+    private FailedTransactionWriter failedTransactionWriter;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void retryAfterVersionConflict() {
+        //given
+        AccountUser user = user();
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        // 재시도마다 계좌를 다시 읽으므로 매번 새 엔티티를 반환
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willAnswer(invocation -> Optional.of(account(user)));
+        given(transactionRepository.save(any()))
+                .willThrow(new OptimisticLockingFailureException("version conflict"))
+                .willReturn(Transaction.builder()
+                        .account(account(user))
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .build());
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L, "1000000000", 1000L);
+
+        //then
+        verify(transactionRepository, times(2)).save(any());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    void failWhenRetriesExhausted() {
+        //given
+        AccountUser user = user();
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willAnswer(invocation -> Optional.of(account(user)));
+        given(transactionRepository.save(any()))
+                .willThrow(new OptimisticLockingFailureException("version conflict"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1000000000", 1000L));
+
+        //then
+        verify(transactionRepository, times(3)).save(any());
+        assertEquals(ACCOUNT_CONCURRENT_UPDATE, exception.getErrorCode());
+    }
+
+    @Test
+    void failCancelWhenRetriesExhausted() {
+        //given
+        AccountUser user = user();
+        Account account = account(user);
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willAnswer(invocation -> Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResultType(S)
+                        .transactionId("transactionIdForCancel")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(1000L)
+                        .balanceSnapshot(9000L)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.markCanceled(anyString()))
+                .willReturn(1);
+        given(transactionRepository.save(any()))
+                .willThrow(new OptimisticLockingFailureException("version conflict"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionIdForCancel",
+                        "1000000000", 1000L));
+
+        //then
+        verify(transactionRepository, times(3)).save(any());
+        assertEquals(ACCOUNT_CONCURRENT_UPDATE, exception.getErrorCode());
+    }
+
+    private static AccountUser user() {
+        AccountUser user = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        user.setId(12L);
+        return user;
+    }
+
+    private static Account account(AccountUser user) {
+        return Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000000").build();
+    }
+}
@@ -3,11 +3,18 @@ package com.example.Account.service;
 import com.example.Account.domain.Account;
 import com.example.Account.domain.AccountUser;
 import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountBalance;
+import com.example.Account.dto.AccountUserDto;
 import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionOutcome;
+import com.example.Account.dto.UseBalance;
 import com.example.Account.exception.AccountException;
 import com.example.Account.repository.AccountRepository;
 import com.example.Account.repository.AccountUserRepository;
 import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.FailedTransactionWriter;
+import com.example.Account.type.BalanceUpdateMode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,21 +22,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.Account.type.AccountStatus.IN_USE;
 import static com.example.Account.type.AccountStatus.UNREGISTERED;
 import static com.example.Account.type.ErrorCode.*;
-import static com.example.Account.type.TransactionResultType.F;
 import static com.example.Account.type.TransactionResultType.S;
 import static com.example.Account.type.TransactionType.CANCEL;
 import static com.example.Account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -45,6 +56,12 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private FailedTransactionWriter failedTransactionWriter;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -60,8 +77,8 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .accountNumber("100000002").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
@@ -95,7 +112,7 @@ class TransactionServiceTest {
     @DisplayName("해당 유저 없음 - 잔액 사용 실패")
     void useBalance_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findDtoById(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
@@ -113,8 +130,8 @@ class TransactionServiceTest {
         AccountUser user = AccountUser.builder()
                 .name("Pobi").build();
         user.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
@@ -136,8 +153,8 @@ class TransactionServiceTest {
         AccountUser harry = AccountUser.builder()
                 .name("Harry").build();
         harry.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(harry)
@@ -159,8 +176,8 @@ class TransactionServiceTest {
         AccountUser pobi = AccountUser.builder()
                 .name("Pobi").build();
         pobi.setId(15L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(pobi)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(pobi)
@@ -190,8 +207,8 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(100L)
                 .accountNumber("100000002").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
@@ -209,37 +226,14 @@ class TransactionServiceTest {
     @DisplayName("실패 트랜잭션 저장 성공")
     void saveFailedUseTransaction() {
         //given
-        AccountUser user = AccountUser.builder()
-                .name("Pobi")
-                .build();
-        user.setId(15L);
-        Account account = Account.builder()
-                .accountUser(user)
-                .accountStatus(IN_USE)
-                .balance(10000L)
-                .accountNumber("100000002").build();
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
-        given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionType(USE)
-                        .transactionResultType(S)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .amount(1000L)
-                        .balanceSnapshot(9000L)
-                        .build());
-        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
-
         //when
         transactionService.saveFailedUseTransaction("1000000000", 200L);
 
-        //then
-        verify(transactionRepository, times(1)).save(captor.capture());
-        assertEquals(200L, captor.getValue().getAmount());
-        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-        assertEquals(F, captor.getValue().getTransactionResultType());
+        //then, 조회/저장 없이 비동기 writer 에 넘김
+        verify(failedTransactionWriter, times(1))
+                .write(USE, "1000000000", 200L);
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        verify(transactionRepository, times(0)).save(any());
     }
 
     @Test
@@ -277,6 +271,8 @@ class TransactionServiceTest {
                         .amount(CANCEL_AMOUNT)
                         .balanceSnapshot(10000L)
                         .build());
+        given(transactionRepository.markCanceled("transactionId"))
+                .willReturn(1);
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
         //when
@@ -289,12 +285,79 @@ class TransactionServiceTest {
         verify(transactionRepository, times(1)).save(captor.capture());
         assertEquals(CANCEL_AMOUNT, captor.getValue().getAmount());
         assertEquals(10000L + CANCEL_AMOUNT, captor.getValue().getBalanceSnapshot());
+        assertEquals("transactionId", captor.getValue().getOriginalTransactionId());
+        verify(transactionRepository, times(1)).markCanceled("transactionId");
         assertEquals(S, transactionDto.getTransactionResultType());
         assertEquals(CANCEL, transactionDto.getTransactionType());
         assertEquals(10000L, transactionDto.getBalanceSnapshot());
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
     }
 
+    @Test
+    @DisplayName("동시에 먼저 취소된 거래 - 잔액 사용 취소 실패")
+    void cancelTransaction_CanceledConcurrently() {
+        //given, 조회 시점에는 취소되지 않았지만 다른 요청이 먼저 원거래를 취소 상태로 바꾼 경우
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000000").build();
+        account.setId(1L);
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.markCanceled("transactionId"))
+                .willReturn(0);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId",
+                        "1000000000", CANCEL_AMOUNT));
+
+        //then, 잔액을 복원하지 않고 취소 거래도 저장하지 않음
+        assertEquals(TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("이미 취소된 거래 - 잔액 사용 취소 실패")
+    void cancelTransaction_AlreadyCanceled() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000000").build();
+        account.setId(1L);
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(CANCEL_AMOUNT)
+                        .canceled(true)
+                        .build()));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId",
+                        "1000000000", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("해당 계좌 없음 - 잔액 사용 취소 실패")
     void cancelTransaction_AccountNotFound() {
@@ -485,7 +548,7 @@ class TransactionServiceTest {
                 .amount(CANCEL_AMOUNT)
                 .balanceSnapshot(9000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
 
         //when
@@ -502,7 +565,7 @@ class TransactionServiceTest {
     @DisplayName("원거래없음 - 거래 조회 실패")
     void queryTransaction_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         //when
@@ -513,4 +576,247 @@ class TransactionServiceTest {
         //then
         assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("조건부 update 차감 - 엔티티 조회 없이 잔액 사용")
+    void successAtomicUseBalance() {
+        //given
+        ReflectionTestUtils.setField(transactionService,
+                "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+        Account accountReference = Account.builder().build();
+        accountReference.setId(7L);
+        given(accountRepository.debit("1000000000", 1L, 200L))
+                .willReturn(1);
+        given(accountRepository.findBalanceByAccountNumber("1000000000"))
+                .willReturn(Optional.of(accountBalance(7L, 9800L)));
+        given(accountRepository.getReferenceById(7L))
+                .willReturn(accountReference);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L,
+                "1000000000", 200L);
+
+        //then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(accountReference, captor.getValue().getAccount());
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(USE, transactionDto.getTransactionType());
+        assertEquals(200L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("조건부 update 차감 실패 - 잔액 부족")
+    void atomicUseBalance_exceedAmount() {
+        //given
+        ReflectionTestUtils.setField(transactionService,
+                "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+        AccountUser user = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        user.setId(1L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(100L)
+                .accountNumber("1000000000").build();
+        given(accountRepository.debit(anyString(), anyLong(), anyLong()))
+                .willReturn(0);
+        given(accountUserRepository.findDtoById(anyLong()))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1000000000", 200L));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("조건부 update 복원 실패 - 거래와 계좌 매칭 실패")
+    void atomicCancelBalance_TransactionAccountUnMatch() {
+        //given
+        ReflectionTestUtils.setField(transactionService,
+                "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .accountNumber("1000000000").build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.credit(1L, "1000000001", CANCEL_AMOUNT))
+                .willReturn(0);
+        given(accountRepository.findByAccountNumber("1000000001"))
+                .willReturn(Optional.of(Account.builder().build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId",
+                        "1000000001", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("조건부 update 복원 실패 - 다른 요청이 먼저 취소")
+    void atomicCancelBalance_AlreadyCanceled() {
+        //given
+        ReflectionTestUtils.setField(transactionService,
+                "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .accountNumber("1000000000").build();
+        account.setId(1L);
+        given(transactionRepository.findByTransactionId("transactionId"))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(CANCEL_AMOUNT)
+                        .build()));
+        given(accountRepository.credit(1L, "1000000000", CANCEL_AMOUNT))
+                .willReturn(1);
+        given(transactionRepository.markCanceled("transactionId"))
+                .willReturn(0);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId",
+                        "1000000000", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋 - 중간 건만 잔액 부족으로 실패하고 나머지는 순서대로 차감")
+    void useBalanceInGroup_exceedAmountInMiddle() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        user.setId(1L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000000").build();
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findDtoById(1L))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<TransactionOutcome> outcomes = transactionService.useBalanceInGroup("1000000000",
+                Arrays.asList(
+                        new UseBalance.Request(1L, "1000000000", 500L),
+                        new UseBalance.Request(1L, "1000000000", 800L),
+                        new UseBalance.Request(1L, "1000000000", 300L)));
+
+        //then
+        assertEquals(3, outcomes.size());
+        assertEquals(500L, outcomes.get(0).getTransactionDto().getBalanceSnapshot());
+        assertEquals(AMOUNT_EXCEED_BALANCE, outcomes.get(1).getException().getErrorCode());
+        assertEquals(200L, outcomes.get(2).getTransactionDto().getBalanceSnapshot());
+        assertEquals(200L, account.getBalance());
+        verify(transactionRepository, times(2)).save(any());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋 - 사용자가 없는 건만 실패")
+    void useBalanceInGroup_userNotFoundForOneItem() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        user.setId(1L);
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000000").build();
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findDtoById(1L))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountUserRepository.findDtoById(2L))
+                .willReturn(Optional.empty());
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<TransactionOutcome> outcomes = transactionService.useBalanceInGroup("1000000000",
+                Arrays.asList(
+                        new UseBalance.Request(1L, "1000000000", 100L),
+                        new UseBalance.Request(2L, "1000000000", 100L),
+                        new UseBalance.Request(1L, "1000000000", 100L)));
+
+        //then
+        assertTrue(outcomes.get(0).isSuccess());
+        assertEquals(USER_NOT_FOUND, outcomes.get(1).getException().getErrorCode());
+        assertTrue(outcomes.get(2).isSuccess());
+        assertEquals(800L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋 - 계좌가 없으면 모든 건 실패")
+    void useBalanceInGroup_accountNotFound() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .name("Pobi")
+                .build();
+        user.setId(1L);
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.findDtoById(1L))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+
+        //when
+        List<TransactionOutcome> outcomes = transactionService.useBalanceInGroup("1000000000",
+                Arrays.asList(
+                        new UseBalance.Request(1L, "1000000000", 100L),
+                        new UseBalance.Request(1L, "1000000000", 200L)));
+
+        //then
+        assertEquals(2, outcomes.size());
+        assertEquals(ACCOUNT_NOT_FOUND, outcomes.get(0).getException().getErrorCode());
+        assertEquals(ACCOUNT_NOT_FOUND, outcomes.get(1).getException().getErrorCode());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    private static AccountBalance accountBalance(Long id, Long balance) {
+        return new AccountBalance() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBalance() {
+                return balance;
+            }
+        };
+    }
+}
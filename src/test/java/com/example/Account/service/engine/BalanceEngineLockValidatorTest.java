@@ -0,0 +1,22 @@
+package com.example.Account.service.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalanceEngineLockValidatorTest {
+    @Test
+    void engineRequiresNoLock() {
+        assertThrows(IllegalStateException.class,
+                () -> new BalanceEngineLockValidator("group-commit", "redis"));
+        assertThrows(IllegalStateException.class,
+                () -> new BalanceEngineLockValidator("journal", "local"));
+    }
+
+    @Test
+    void acceptEngineWithoutLockOrLockWithoutEngine() {
+        assertDoesNotThrow(() -> new BalanceEngineLockValidator("sharded", "none"));
+        assertDoesNotThrow(() -> new BalanceEngineLockValidator("", "redis"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayAppendedRecords() throws IOException {
+        //given
+        BalanceJournal journal = new BalanceJournal(directory, 4096, false);
+        journal.open(record -> {
+        });
+        List<JournalRecord> enqueued = new ArrayList<>();
+        journal.append(record("t1", TransactionType.USE, 9000L), enqueued::add);
+        journal.append(record("t2", TransactionType.USE, 8000L), enqueued::add);
+        journal.append(record("t3", TransactionType.CANCEL, 9000L), enqueued::add);
+        journal.close();
+
+        //when
+        List<JournalRecord> replayed = new ArrayList<>();
+        BalanceJournal reopened = new BalanceJournal(directory, 4096, false);
+        reopened.open(replayed::add);
+
+        //then
+        assertEquals(3, enqueued.size());
+        assertEquals(3, replayed.size());
+        assertEquals(3L, reopened.lastSequence());
+        assertEquals("t3", replayed.get(2).getLedgerRecord().getTransactionId());
+        assertEquals(TransactionType.CANCEL, replayed.get(2).getLedgerRecord().getTransactionType());
+        assertEquals(9000L, replayed.get(2).getLedgerRecord().getBalanceSnapshot());
+        assertEquals("t1", replayed.get(2).getLedgerRecord().getOriginalTransactionId());
+        assertNull(replayed.get(0).getLedgerRecord().getOriginalTransactionId());
+        reopened.close();
+    }
+
+    @Test
+    void ignoreTornRecordAndContinue() throws IOException {
+        //given
+        BalanceJournal journal = new BalanceJournal(directory, 4096, false);
+        journal.open(record -> {
+        });
+        journal.append(record("t1", TransactionType.USE, 9000L), record -> {
+        });
+        journal.append(record("t2", TransactionType.USE, 8000L), record -> {
+        });
+        journal.close();
+        // 두 번째 기록을 쓰다가 죽은 것처럼 마지막 바이트를 망가뜨림
+        try (Stream<Path> files = Files.list(directory);
+             RandomAccessFile file = new RandomAccessFile(
+                     files.findFirst().orElseThrow(IllegalStateException::new).toFile(), "rw")) {
+            int firstLength = readInt(file, 0);
+            long secondEnd = 4 + firstLength + 4 + 4 + readInt(file, 4 + firstLength + 4) + 4;
+            file.seek(secondEnd - 1);
+            int lastByte = file.read();
+            file.seek(secondEnd - 1);
+            file.write(lastByte + 1);
+        }
+
+        //when
+        List<JournalRecord> replayed = new ArrayList<>();
+        BalanceJournal reopened = new BalanceJournal(directory, 4096, false);
+        reopened.open(replayed::add);
+        JournalRecord appended = reopened.append(record("t3", TransactionType.USE, 7000L), record -> {
+        });
+
+        //then, 망가진 기록은 버리고 그 자리부터 다음 번호로 이어 씀
+        assertEquals(1, replayed.size());
+        assertEquals(2L, appended.getSequence());
+        reopened.close();
+    }
+
+    @Test
+    void rollAndDeleteSegments() throws IOException {
+        //given, 파일 하나에 기록 두 개 정도만 들어가는 크기
+        BalanceJournal journal = new BalanceJournal(directory, 200, false);
+        journal.open(record -> {
+        });
+        for (int i = 1; i <= 6; i++) {
+            journal.append(record("t" + i, TransactionType.USE, 10000L - i), record -> {
+            });
+        }
+        long segmentCount = countSegments();
+
+        //when
+        journal.deleteSegmentsUpTo(journal.lastSequence());
+        journal.close();
+        List<JournalRecord> replayed = new ArrayList<>();
+        BalanceJournal reopened = new BalanceJournal(directory, 200, false);
+        reopened.open(replayed::add);
+
+        //then, 쓰고 있던 파일만 남고 기록 번호는 이어짐
+        assertTrue(segmentCount > 1);
+        assertEquals(1L, countSegments());
+        assertEquals(6L, reopened.lastSequence());
+        assertEquals(6L, replayed.get(replayed.size() - 1).getSequence());
+        reopened.close();
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws IOException {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static LedgerRecord record(String transactionId, TransactionType transactionType,
+                                       Long balance) {
+        return new LedgerRecord(transactionId, transactionType, 1L, 1000L, balance,
+                LocalDateTime.now(), "1000000001",
+                transactionType == TransactionType.CANCEL ? "t1" : null);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.dto.TransactionOutcome;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.TRANSACTION_RESULT_TIMEOUT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitBalanceEngineTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private GroupCommitBalanceEngine engine;
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdown();
+        engine.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentUsesAreCommittedTogether() throws Exception {
+        //given, 잔액 1500 : 500 씩 세 번 사용 중 1000 짜리가 끼면 실패
+        engine = new GroupCommitBalanceEngine(transactionService, 200L, 100, 1, 5000L);
+        given(transactionService.useBalanceInGroup(eq("1000000000"), anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalance.Request> requests = invocation.getArgument(1);
+                    long balance = 1500L;
+                    List<TransactionOutcome> outcomes = new ArrayList<>();
+                    for (UseBalance.Request request : requests) {
+                        if (request.getAmount() > balance) {
+                            outcomes.add(TransactionOutcome.failure(
+                                    new AccountException(AMOUNT_EXCEED_BALANCE)));
+                            continue;
+                        }
+                        balance -= request.getAmount();
+                        outcomes.add(TransactionOutcome.success(TransactionDto.builder()
+                                .amount(request.getAmount())
+                                .balanceSnapshot(balance)
+                                .build()));
+                    }
+                    return outcomes;
+                });
+
+        //when
+        Future<TransactionDto> first = callers.submit(() ->
+                engine.useBalance(1L, "1000000000", 500L));
+        Future<TransactionDto> second = callers.submit(() ->
+                engine.useBalance(1L, "1000000000", 500L));
+        Future<TransactionDto> third = callers.submit(() ->
+                engine.useBalance(1L, "1000000000", 1000L));
+
+        //then, 세 요청이 한 번의 커밋으로 처리되고 잔액이 부족한 건만 실패
+        List<TransactionDto> successes = new ArrayList<>();
+        int failures = 0;
+        for (Future<TransactionDto> future : List.of(first, second, third)) {
+            try {
+                successes.add(future.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertEquals(AMOUNT_EXCEED_BALANCE,
+                        ((AccountException) e.getCause()).getErrorCode());
+                failures++;
+            }
+        }
+        verify(transactionService, times(1)).useBalanceInGroup(eq("1000000000"), anyList());
+        assertEquals(1, failures);
+        assertEquals(2, successes.size());
+    }
+
+    @Test
+    void batchFailureFailsEveryRequest() {
+        //given
+        engine = new GroupCommitBalanceEngine(transactionService, 1L, 100, 1, 5000L);
+        given(transactionService.useBalanceInGroup(eq("1000000000"), anyList()))
+                .willThrow(new IllegalStateException("db down"));
+
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> engine.useBalance(1L, "1000000000", 500L));
+    }
+
+    @Test
+    void removeQueueWhenDrained() {
+        //given
+        engine = new GroupCommitBalanceEngine(transactionService, 1L, 100, 1, 5000L);
+        given(transactionService.useBalanceInGroup(eq("1000000000"), anyList()))
+                .willReturn(List.of(TransactionOutcome.success(TransactionDto.builder()
+                        .amount(500L)
+                        .build())));
+
+        //when
+        engine.useBalance(1L, "1000000000", 500L);
+
+        //then, 배치를 마친 계좌의 큐는 남지 않음
+        Map<?, ?> queues = (Map<?, ?>) ReflectionTestUtils.getField(engine, "queues");
+        await(() -> queues.isEmpty());
+    }
+
+    @Test
+    void failWhenResultTimesOut() {
+        //given
+        engine = new GroupCommitBalanceEngine(transactionService, 1L, 100, 1, 100L);
+        given(transactionService.useBalanceInGroup(eq("1000000000"), anyList()))
+                .willAnswer(invocation -> {
+                    Thread.sleep(1000L);
+                    return List.of();
+                });
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(1L, "1000000000", 500L));
+
+        //then
+        assertEquals(TRANSACTION_RESULT_TIMEOUT, exception.getErrorCode());
+    }
+
+    @Test
+    void failAfterShutdown() throws InterruptedException {
+        //given
+        engine = new GroupCommitBalanceEngine(transactionService, 1L, 100, 1, 5000L);
+        engine.shutdown();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(1L, "1000000000", 500L));
+
+        //then, 예약할 수 없으면 기다리지 않고 바로 실패
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.yield();
+        }
+    }
+}
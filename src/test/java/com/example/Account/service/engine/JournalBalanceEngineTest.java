@@ -0,0 +1,242 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.dto.AccountUserDto;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.type.AccountStatus;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.BALANCE_NOT_EMPTY;
+import static com.example.Account.type.ErrorCode.TRANSACTION_ALREADY_CANCELED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JournalBalanceEngineTest {
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private LedgerBatchWriter ledgerBatchWriter;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        AccountUser user = AccountUser.builder().id(12L).name("Pobi").build();
+        // DB 잔액은 저널 모드에서 처음 읽을 때만 사용
+        given(accountUserRepository.findDtoById(12L))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(Account.builder()
+                        .id(1L)
+                        .accountUser(user)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(10000L)
+                        .build()));
+    }
+
+    @Test
+    void recoverBalanceAfterRestart() throws Exception {
+        //given
+        given(transactionIdGenerator.generate()).willReturn("t1", "t2", "t3");
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+        engine.useBalance(12L, "1000000012", 1000L);
+        engine.useBalance(12L, "1000000012", 1000L);
+        engine.stop();
+
+        //when, DB 잔액(10000)은 아직 그대로지만 저널의 잔액(8000)에서 이어감
+        JournalBalanceEngine restarted = newEngine();
+        restarted.start();
+        TransactionDto transactionDto = restarted.useBalance(12L, "1000000012", 1000L);
+        restarted.stop();
+
+        //then
+        assertEquals(7000L, transactionDto.getBalanceSnapshot());
+        assertEquals("t3", transactionDto.getTransactionId());
+        verify(ledgerBatchWriter, atLeastOnce()).write(anyList());
+    }
+
+    @Test
+    void replayJournalWithoutCheckpoint() throws Exception {
+        //given, checkpoint 를 남기지 못하고 죽은 경우
+        given(transactionIdGenerator.generate()).willReturn("t1", "t2");
+        JournalBalanceEngine crashed = newEngine();
+        crashed.start();
+        crashed.useBalance(12L, "1000000012", 3000L);
+
+        //when
+        JournalBalanceEngine restarted = newEngine();
+        restarted.start();
+        TransactionDto transactionDto = restarted.useBalance(12L, "1000000012", 1000L);
+
+        //then
+        assertEquals(6000L, transactionDto.getBalanceSnapshot());
+        restarted.stop();
+        crashed.stop();
+    }
+
+    @Test
+    void cancelTransactionNotYetInDatabase() throws Exception {
+        //given, DB 저장이 끝나지 않은 상태
+        CountDownLatch databaseSlow = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            databaseSlow.await();
+            return Collections.emptyList();
+        }).given(ledgerBatchWriter).write(anyList());
+        given(transactionIdGenerator.generate()).willReturn("t1", "t2");
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+        TransactionDto used = engine.useBalance(12L, "1000000012", 1000L);
+
+        //when
+        TransactionDto canceled = engine.cancelBalance(used.getTransactionId(), "1000000012", 1000L);
+
+        //then
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        assertEquals(TransactionType.CANCEL, canceled.getTransactionType());
+        assertEquals(10000L, canceled.getBalanceSnapshot());
+        databaseSlow.countDown();
+        engine.stop();
+    }
+
+    @Test
+    void cancelBalance_AlreadyCanceledBeforeDatabase() throws Exception {
+        //given, 첫 취소가 DB 에 저장되지 않은 상태
+        CountDownLatch databaseSlow = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            databaseSlow.await();
+            return Collections.emptyList();
+        }).given(ledgerBatchWriter).write(anyList());
+        given(transactionIdGenerator.generate()).willReturn("t1", "t2");
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+        TransactionDto used = engine.useBalance(12L, "1000000012", 1000L);
+        engine.cancelBalance(used.getTransactionId(), "1000000012", 1000L);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.cancelBalance(used.getTransactionId(), "1000000012", 1000L));
+
+        //then
+        assertEquals(TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        databaseSlow.countDown();
+        engine.stop();
+    }
+
+    @Test
+    void closeAccountWithBalanceInMemory() throws Exception {
+        //given, DB 잔액(10000)과 관계없이 메모리의 잔액으로 확인
+        given(transactionIdGenerator.generate()).willReturn("t1", "t2");
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+        TransactionDto used = engine.useBalance(12L, "1000000012", 1000L);
+        Account entity = Account.builder().accountNumber("1000000012").balance(0L).build();
+        AccountException notEmpty = assertThrows(AccountException.class,
+                () -> engine.closeAccount(entity));
+        engine.useBalance(12L, "1000000012", 9000L);
+
+        //when
+        engine.closeAccount(entity);
+
+        //then, 해지한 뒤에는 사용/취소를 받지 않음
+        assertEquals(BALANCE_NOT_EMPTY, notEmpty.getErrorCode());
+        AccountException useException = assertThrows(AccountException.class,
+                () -> engine.useBalance(12L, "1000000012", 0L));
+        AccountException cancelException = assertThrows(AccountException.class,
+                () -> engine.cancelBalance(used.getTransactionId(), "1000000012", 1000L));
+        assertEquals(ACCOUNT_ALREADY_UNREGISTERED, useException.getErrorCode());
+        assertEquals(ACCOUNT_ALREADY_UNREGISTERED, cancelException.getErrorCode());
+        engine.stop();
+    }
+
+    @Test
+    void reopenAccountWhenCloseIsRolledBack() throws Exception {
+        //given
+        given(transactionIdGenerator.generate()).willReturn("t1");
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+        Account entity = Account.builder().accountNumber("1000000012").balance(0L).build();
+        engine.useBalance(12L, "1000000012", 10000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.closeAccount(entity);
+
+            //when, 해지를 저장하는 DB 트랜잭션이 롤백됨
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        //then, 계좌를 다시 쓸 수 있음
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(12L, "1000000012", 1L));
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        engine.stop();
+    }
+
+    @Test
+    void useBalance_AmountExceedBalance() throws Exception {
+        //given
+        JournalBalanceEngine engine = newEngine();
+        engine.start();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(12L, "1000000012", 10001L));
+
+        //then, 실패한 요청은 저널에 남기지 않음
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        engine.stop();
+        verify(ledgerBatchWriter, never()).write(anyList());
+    }
+
+    private JournalBalanceEngine newEngine() {
+        return new JournalBalanceEngine(accountUserRepository, accountRepository,
+                transactionRepository, transactionIdGenerator, ledgerBatchWriter,
+                directory.toString(), 1, false, 60000L, 100, 1000, 1000L, 5);
+    }
+}
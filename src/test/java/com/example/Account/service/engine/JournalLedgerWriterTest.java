@@ -0,0 +1,136 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class JournalLedgerWriterTest {
+    @Mock
+    private LedgerBatchWriter ledgerBatchWriter;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deadLetterRecordFailingAfterMaxAttempts() throws Exception {
+        //given, t2 만 계속 저장에 실패
+        willAnswer(invocation -> {
+            List<LedgerRecord> records = invocation.getArgument(0);
+            if (records.stream().anyMatch(record -> record.getTransactionId().equals("t2"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return Collections.emptyList();
+        }).given(ledgerBatchWriter).write(anyList());
+        JournalLedgerWriter writer = newWriter(100, 1);
+        writer.enqueue(record(1L, "t1"));
+        writer.enqueue(record(2L, "t2"));
+        writer.enqueue(record(3L, "t3"));
+
+        //when
+        writer.start(0L);
+        awaitFlushed(writer, 3L);
+        writer.stop();
+
+        //then, 실패하는 기록만 dead-letter 로 넘기고 다음 기록은 저장
+        List<String> deadLetters = Files.readAllLines(directory.resolve("dead-letter.log"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).startsWith("t2|USE|1|"));
+        assertFalse(writer.findPending("t3").isPresent());
+    }
+
+    @Test
+    void deadLetterRecordOfMissingAccount() throws Exception {
+        //given
+        JournalRecord missing = record(1L, "t1");
+        given(ledgerBatchWriter.write(anyList()))
+                .willReturn(Collections.singletonList(missing.getLedgerRecord()));
+        JournalLedgerWriter writer = newWriter(100, 5);
+        writer.enqueue(missing);
+
+        //when
+        writer.start(0L);
+        awaitFlushed(writer, 1L);
+        writer.stop();
+
+        //then, 저장되지 않은 기록을 버리지 않고 남김
+        List<String> deadLetters = Files.readAllLines(directory.resolve("dead-letter.log"));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).endsWith("account not found"));
+    }
+
+    @Test
+    void keepOriginalBlockedWhenCancelIsDeadLettered() throws Exception {
+        //given, 원거래 t1 의 취소 기록이 계속 저장에 실패
+        given(ledgerBatchWriter.write(anyList()))
+                .willThrow(new IllegalStateException("constraint violation"));
+        JournalLedgerWriter writer = newWriter(100, 1);
+        writer.enqueue(new JournalRecord(1L, new LedgerRecord("c1", TransactionType.CANCEL,
+                1L, 1000L, 10000L, LocalDateTime.now(), "1000000012", "t1")));
+
+        //when
+        writer.start(0L);
+        awaitFlushed(writer, 1L);
+        writer.stop();
+        JournalLedgerWriter restarted = newWriter(100, 1);
+        restarted.start(1L);
+        restarted.stop();
+
+        //then, DB 에 취소 여부가 남지 않았으므로 재기동 후에도 원거래를 다시 취소할 수 없음
+        assertFalse(writer.findPending("c1").isPresent());
+        assertTrue(writer.isCancelPending("t1"));
+        assertTrue(restarted.isCancelPending("t1"));
+        assertFalse(restarted.isCancelPending("t2"));
+    }
+
+    @Test
+    void awaitCapacityFailsWhenWriterIsBehind() {
+        //given, 저장 대기 기록이 가득 찬 상태
+        JournalLedgerWriter writer = newWriter(1, 5);
+        writer.enqueue(record(1L, "t1"));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                writer::awaitCapacity);
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    private JournalLedgerWriter newWriter(int queueCapacity, int maxAttempts) {
+        return new JournalLedgerWriter(ledgerBatchWriter, 100, queueCapacity, 50L,
+                maxAttempts, directory);
+    }
+
+    private static void awaitFlushed(JournalLedgerWriter writer, long sequence)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (writer.flushedSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(sequence, writer.flushedSequence());
+    }
+
+    private static JournalRecord record(long sequence, String transactionId) {
+        return new JournalRecord(sequence, new LedgerRecord(transactionId, TransactionType.USE,
+                1L, 1000L, 9000L, LocalDateTime.now(), "1000000012", null));
+    }
+}
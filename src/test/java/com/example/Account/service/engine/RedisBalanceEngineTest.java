@@ -0,0 +1,298 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.domain.Account;
+import com.example.Account.domain.AccountUser;
+import com.example.Account.domain.Transaction;
+import com.example.Account.dto.AccountUserDto;
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.repository.AccountUserRepository;
+import com.example.Account.repository.TransactionRepository;
+import com.example.Account.service.generator.TransactionIdGenerator;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.AccountStatus;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.Account.type.ErrorCode.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBalanceEngineTest {
+    @Mock
+    private RedisBalanceStore redisBalanceStore;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @InjectMocks
+    private RedisBalanceEngine engine;
+
+    @Test
+    void useBalanceWithoutDatabase() {
+        //given
+        given(accountUserRepository.findDtoById(12L))
+                .willReturn(Optional.of(new AccountUserDto(12L, "Pobi")));
+        given(transactionIdGenerator.generate()).willReturn("transactionId");
+        given(redisBalanceStore.debit(eq("1000000012"), eq(12L), eq(1000L),
+                eq("transactionId"), any()))
+                .willReturn(Optional.of(9000L));
+
+        //when
+        TransactionDto transactionDto = engine.useBalance(12L, "1000000012", 1000L);
+
+        //then, 계좌가 이미 redis 에 있으면 계좌를 조회하지 않음
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+
+    @Test
+    void loadAccountWhenNotInRedis() {
+        //given
+        AccountUser user = AccountUser.builder().id(12L).name("Pobi").build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .build();
+        given(accountUserRepository.findDtoById(12L))
+                .willReturn(Optional.of(AccountUserDto.fromEntity(user)));
+        given(transactionIdGenerator.generate()).willReturn("transactionId");
+        given(redisBalanceStore.debit(eq("1000000012"), eq(12L), eq(1000L),
+                eq("transactionId"), any()))
+                .willReturn(Optional.empty(), Optional.of(9000L));
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account));
+
+        //when
+        TransactionDto transactionDto = engine.useBalance(12L, "1000000012", 1000L);
+
+        //then
+        verify(redisBalanceStore).load(account);
+        verify(redisBalanceStore, times(2)).debit(eq("1000000012"), eq(12L), eq(1000L),
+                eq("transactionId"), any());
+        assertEquals(9000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    void useBalance_AccountNotFound() {
+        //given
+        given(accountUserRepository.findDtoById(12L))
+                .willReturn(Optional.of(new AccountUserDto(12L, "Pobi")));
+        given(transactionIdGenerator.generate()).willReturn("transactionId");
+        given(redisBalanceStore.debit(anyString(), anyLong(), anyLong(), anyString(), any()))
+                .willReturn(Optional.empty());
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(12L, "1000000012", 1000L));
+
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    void closeAccountLoadsAccountWhenNotInRedis() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder().id(12L).name("Pobi").build())
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(0L)
+                .build();
+        given(redisBalanceStore.close("1000000012")).willReturn(false, true);
+
+        //when
+        engine.closeAccount(account);
+
+        //then, redis 의 잔액과 상태로 확인하고 해지 상태로 바꿈
+        verify(redisBalanceStore).load(account);
+        verify(redisBalanceStore, times(2)).close("1000000012");
+    }
+
+    @Test
+    void closeAccount_BalanceUnavailable() {
+        //given, 올린 계좌가 바로 지워진 경우
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(0L)
+                .build();
+        given(redisBalanceStore.close("1000000012")).willReturn(false, false);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.closeAccount(account));
+
+        //then
+        assertEquals(ACCOUNT_BALANCE_UNAVAILABLE, exception.getErrorCode());
+    }
+
+    @Test
+    void reopenAccountWhenCloseIsRolledBack() {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(0L)
+                .build();
+        given(redisBalanceStore.close("1000000012")).willReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            engine.closeAccount(account);
+            List<TransactionSynchronization> synchronizations =
+                    TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(
+                    TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            //then, 해지를 저장하지 못했으므로 계좌를 다시 쓸 수 있게 되돌림
+            verify(redisBalanceStore).reopen("1000000012");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void keepAccountClosedWhenCloseIsCommitted() {
+        //given
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(0L)
+                .build();
+        given(redisBalanceStore.close("1000000012")).willReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //when
+            engine.closeAccount(account);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_COMMITTED));
+
+            //then
+            verify(redisBalanceStore, never()).reopen(anyString());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void closeAccount_BalanceNotEmptyInRedis() {
+        //given, DB 잔액은 0 이지만 redis 잔액이 남아 있는 경우
+        Account account = Account.builder()
+                .accountNumber("1000000012")
+                .balance(0L)
+                .build();
+        given(redisBalanceStore.close("1000000012"))
+                .willThrow(new AccountException(BALANCE_NOT_EMPTY));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.closeAccount(account));
+
+        //then
+        assertEquals(BALANCE_NOT_EMPTY, exception.getErrorCode());
+        verify(redisBalanceStore, never()).load(any());
+    }
+
+    @Test
+    void cancelPendingTransaction() {
+        //given
+        given(redisBalanceStore.findPending("useTransactionId"))
+                .willReturn(Optional.of(new LedgerRecord("useTransactionId",
+                        TransactionType.USE, 1L, 1000L, 9000L,
+                        LocalDateTime.now(), "1000000012", null)));
+        given(transactionIdGenerator.generate()).willReturn("cancelTransactionId");
+        given(redisBalanceStore.credit(eq("1000000012"), eq(1L), eq(1000L),
+                eq("cancelTransactionId"), any(), eq("useTransactionId")))
+                .willReturn(Optional.of(10000L));
+
+        //when
+        TransactionDto transactionDto =
+                engine.cancelBalance("useTransactionId", "1000000012", 1000L);
+
+        //then, DB 에 반영되지 않은 거래도 취소됨
+        verify(transactionRepository, never()).findByTransactionId(anyString());
+        assertEquals(TransactionType.CANCEL, transactionDto.getTransactionType());
+        assertEquals(10000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    void cancelBalance_CancelMustFully() {
+        //given
+        given(redisBalanceStore.findPending("useTransactionId"))
+                .willReturn(Optional.empty());
+        given(transactionRepository.findByTransactionId("useTransactionId"))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(Account.builder().id(1L).build())
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.cancelBalance("useTransactionId", "1000000012", 500L));
+
+        //then
+        assertEquals(CANCEL_MUST_FULLY, exception.getErrorCode());
+        verify(redisBalanceStore, never())
+                .credit(anyString(), anyLong(), anyLong(), anyString(), any(), anyString());
+    }
+
+    @Test
+    void cancelBalance_AlreadyCanceledInDatabase() {
+        //given
+        given(redisBalanceStore.findPending("useTransactionId"))
+                .willReturn(Optional.empty());
+        given(transactionRepository.findByTransactionId("useTransactionId"))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(Account.builder().id(1L).build())
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .canceled(true)
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.cancelBalance("useTransactionId", "1000000012", 1000L));
+
+        //then
+        assertEquals(TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+        verify(redisBalanceStore, never())
+                .credit(anyString(), anyLong(), anyLong(), anyString(), any(), anyString());
+    }
+}
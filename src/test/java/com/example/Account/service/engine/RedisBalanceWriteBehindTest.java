@@ -0,0 +1,164 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.AccountBalance;
+import com.example.Account.repository.AccountRepository;
+import com.example.Account.service.ledger.LedgerBatchWriter;
+import com.example.Account.service.ledger.LedgerRecord;
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBalanceWriteBehindTest {
+    @Mock
+    private RedisBalanceStore redisBalanceStore;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LedgerBatchWriter ledgerBatchWriter;
+
+    @Mock
+    private RLock writerLock;
+
+    private RedisBalanceWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind = new RedisBalanceWriteBehind(redisBalanceStore, accountRepository,
+                ledgerBatchWriter, 10, 50L);
+    }
+
+    @Test
+    void removePendingAfterWrite() {
+        //given
+        List<LedgerRecord> batch = Arrays.asList(
+                pending("t1", 1L, 9000L),
+                pending("t2", 2L, 4000L));
+        given(redisBalanceStore.writerLock()).willReturn(writerLock);
+        given(writerLock.tryLock()).willReturn(true);
+        given(redisBalanceStore.peekPending(10)).willReturn(batch);
+
+        //when
+        int written = writeBehind.flush();
+
+        //then, DB 에 저장한 뒤에만 redis 에서 지움
+        assertEquals(2, written);
+        InOrder inOrder = inOrder(ledgerBatchWriter, redisBalanceStore, writerLock);
+        inOrder.verify(ledgerBatchWriter).write(batch);
+        inOrder.verify(redisBalanceStore).removePending(batch);
+        inOrder.verify(writerLock).unlock();
+    }
+
+    @Test
+    void moveRejectedRecordsToDeadLetters() {
+        //given, t2 의 계좌가 DB 에 없는 경우
+        List<LedgerRecord> batch = Arrays.asList(
+                pending("t1", 1L, 9000L),
+                pending("t2", 2L, 4000L));
+        given(redisBalanceStore.writerLock()).willReturn(writerLock);
+        given(writerLock.tryLock()).willReturn(true);
+        given(redisBalanceStore.peekPending(10)).willReturn(batch);
+        given(ledgerBatchWriter.write(batch)).willReturn(batch.subList(1, 2));
+
+        //when
+        writeBehind.flush();
+
+        //then, 저장할 수 없는 기록은 옮겨두고 대기 기록에서는 지움
+        InOrder inOrder = inOrder(redisBalanceStore);
+        inOrder.verify(redisBalanceStore).addDeadLetters(batch.subList(1, 2));
+        inOrder.verify(redisBalanceStore).removePending(batch);
+    }
+
+    @Test
+    void skipWhenAnotherInstanceIsWriting() {
+        //given
+        given(redisBalanceStore.writerLock()).willReturn(writerLock);
+        given(writerLock.tryLock()).willReturn(false);
+
+        //when
+        int written = writeBehind.flush();
+
+        //then
+        assertEquals(0, written);
+        verify(redisBalanceStore, never()).peekPending(anyInt());
+    }
+
+    @Test
+    void keepPendingWhenWriteFails() {
+        //given
+        List<LedgerRecord> batch = Collections.singletonList(pending("t1", 1L, 9000L));
+        given(redisBalanceStore.writerLock()).willReturn(writerLock);
+        given(writerLock.tryLock()).willReturn(true);
+        given(redisBalanceStore.peekPending(10)).willReturn(batch);
+        willThrow(new IllegalStateException("db down")).given(ledgerBatchWriter).write(batch);
+
+        //when
+        assertThrows(IllegalStateException.class, () -> writeBehind.flush());
+
+        //then, 저장하지 못한 기록은 redis 에 남겨 다음에 다시 반영
+        verify(redisBalanceStore, never()).removePending(anyList());
+        verify(writerLock).unlock();
+    }
+
+    @Test
+    void evictAccountDifferentFromLedger() {
+        //given
+        given(redisBalanceStore.loadedAccountNumbers())
+                .willReturn(Arrays.asList("1000000001", "1000000002"));
+        given(redisBalanceStore.findBalance("1000000001")).willReturn(Optional.of(9000L));
+        given(redisBalanceStore.findBalance("1000000002")).willReturn(Optional.of(4000L));
+        given(accountRepository.findBalanceByAccountNumber("1000000001"))
+                .willReturn(Optional.of(balance(1L, 9000L)));
+        given(accountRepository.findBalanceByAccountNumber("1000000002"))
+                .willReturn(Optional.of(balance(2L, 5000L)));
+
+        //when
+        writeBehind.reconcile();
+
+        //then, 원장과 다른 계좌만 redis 에서 지움
+        verify(redisBalanceStore).evict("1000000002", 4000L);
+        verify(redisBalanceStore, never()).evict("1000000001", 9000L);
+    }
+
+    private static LedgerRecord pending(String transactionId, Long accountId, Long balance) {
+        return new LedgerRecord(transactionId, TransactionType.USE, accountId, 1000L,
+                balance, LocalDateTime.now(), "100000000" + accountId, null);
+    }
+
+    private static AccountBalance balance(Long id, Long balance) {
+        return new AccountBalance() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBalance() {
+                return balance;
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.Account.service.engine;
+
+import com.example.Account.dto.TransactionDto;
+import com.example.Account.exception.AccountException;
+import com.example.Account.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.TRANSACTION_RESULT_TIMEOUT;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedBalanceEngineTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private ShardedBalanceEngine engine;
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdown();
+        engine.shutdown();
+    }
+
+    @Test
+    void sameAccountRunsOnOneThreadSequentially() throws Exception {
+        //given
+        engine = new ShardedBalanceEngine(transactionService, 4, 100, 5000L);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> {
+                    threadNames.add(Thread.currentThread().getName());
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return TransactionDto.builder().amount(invocation.getArgument(2)).build();
+                });
+
+        //when
+        List<Future<TransactionDto>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(callers.submit(() ->
+                    engine.useBalance(1L, "1000000000", 100L)));
+        }
+        for (Future<TransactionDto> future : futures) {
+            assertEquals(100L, future.get(5, TimeUnit.SECONDS).getAmount());
+        }
+
+        //then, 같은 계좌는 한 shard 스레드에서 하나씩 실행됨
+        assertEquals(1, threadNames.size());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void throwAccountExceptionFromShard() {
+        //given
+        engine = new ShardedBalanceEngine(transactionService, 4, 100, 5000L);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(1L, "1000000000", 100L));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    void failWhenResultTimesOut() {
+        //given
+        engine = new ShardedBalanceEngine(transactionService, 4, 100, 100L);
+        CountDownLatch finished = new CountDownLatch(1);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> {
+                    Thread.sleep(500L);
+                    finished.countDown();
+                    return TransactionDto.builder().build();
+                });
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> engine.useBalance(1L, "1000000000", 100L));
+
+        //then, 요청은 시간 초과로 끝나도 shard 는 거래를 끝까지 처리한다. (결과를 알 수 없으므로 실패로 기록하지 않음)
+        assertEquals(TRANSACTION_RESULT_TIMEOUT, exception.getErrorCode());
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failQueuedTasksOnShutdown() throws Exception {
+        //given, shard 하나에서 첫 작업이 끝나지 않는 동안 두 번째 작업이 대기
+        engine = new ShardedBalanceEngine(transactionService, 1, 100, 100L);
+        CountDownLatch started = new CountDownLatch(1);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willAnswer(invocation -> {
+                    started.countDown();
+                    Thread.sleep(10_000L);
+                    return TransactionDto.builder().build();
+                });
+        callers.submit(() -> engine.useBalance(1L, "1000000000", 100L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<TransactionDto> queued = callers.submit(() ->
+                engine.useBalance(1L, "1000000000", 200L));
+
+        //when
+        Thread.sleep(50L);
+        engine.shutdown();
+
+        //then, 대기 중이던 요청은 기다리지 않고 실패
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> queued.get(5, TimeUnit.SECONDS));
+        assertEquals(ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+
+    @Test
+    void shardIsStablePerAccount() {
+        //given
+        engine = new ShardedBalanceEngine(transactionService, 16, 100, 5000L);
+
+        //when
+        //then
+        for (int i = 0; i < 1000; i++) {
+            String accountNumber = String.format("1%09d", i);
+            int shard = engine.shardOf(accountNumber);
+            assertTrue(shard >= 0 && shard < 16);
+            assertEquals(shard, engine.shardOf(accountNumber));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.Account.service.generator;
+
+import com.example.Account.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberGeneratorTest {
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    void issueNumbersFromReservedBlock() {
+        //given
+        AccountNumberGenerator generator = new AccountNumberGenerator(accountRepository, 2);
+        given(accountRepository.nextAccountNumberBlock())
+                .willReturn(1L, 5L);
+
+        //when
+        String first = generator.next();
+        String second = generator.next();
+        String third = generator.next();
+
+        //then, 블록이 소진될 때만 시퀀스를 조회
+        verify(accountRepository, times(2)).nextAccountNumberBlock();
+        assertEquals("1000000008", first);
+        assertEquals("1000000016", second);
+        assertEquals("100000008", third.substring(0, 9));
+        assertTrue(AccountNumberGenerator.isValid(first));
+        assertTrue(AccountNumberGenerator.isValid(second));
+        assertTrue(AccountNumberGenerator.isValid(third));
+    }
+
+    @Test
+    void invalidCheckDigit() {
+        //given
+        //when
+        //then
+        assertFalse(AccountNumberGenerator.isValid("1000000000"));
+        assertFalse(AccountNumberGenerator.isValid("100000000"));
+        assertFalse(AccountNumberGenerator.isValid("10000000a8"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Account.service.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeTransactionIdGeneratorTest {
+    private final SnowflakeTransactionIdGenerator generator =
+            new SnowflakeTransactionIdGenerator(7L);
+
+    @Test
+    void idsAreFixedLengthAndIncreasing() {
+        //given
+        String previous = generator.generate();
+
+        //when
+        //then, 같은 밀리초 안에서 일련번호가 넘쳐도 계속 증가
+        for (int i = 0; i < 10_000; i++) {
+            String current = generator.generate();
+            assertEquals(16, current.length());
+            assertTrue(current.compareTo(previous) > 0);
+            previous = current;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> futures = new ArrayList<>();
+
+        //when
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < 5_000; i++) {
+                    ids.add(generator.generate());
+                }
+                return ids;
+            }));
+        }
+        Set<String> ids = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            ids.addAll(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(20_000, ids.size());
+    }
+
+    @Test
+    void nodeIdOutOfRange() {
+        //given
+        //when
+        //then
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeTransactionIdGenerator(1024L));
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.Account.service.idempotency;
+
+import com.example.Account.controller.AsyncTransactionController;
+import com.example.Account.controller.TransactionController;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.TransactionResultType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.Account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.Account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.Account.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static com.example.Account.type.ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS;
+import static com.example.Account.type.ErrorCode.TRANSACTION_RESULT_TIMEOUT;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ProceedingJoinPoint pjp;
+
+    @Mock
+    private MethodSignature signature;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyAspect aspect;
+
+    private MockHttpServletRequest request;
+
+    private final UseBalance.Request useRequest = new UseBalance.Request(1L, "1000000000", 1000L);
+
+    @BeforeEach
+    void setUp() {
+        aspect = new IdempotencyAspect(idempotencyStore, objectMapper);
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void proceedWithoutIdempotencyKey() throws Throwable {
+        //given
+        given(pjp.proceed()).willReturn(response());
+
+        //when
+        Object result = aspect.aroundMethod(pjp);
+
+        //then
+        assertEquals("transactionId", ((UseBalance.Response) result).getTransactionId());
+        verify(idempotencyStore, never()).putIfAbsent(anyString(), any());
+    }
+
+    @Test
+    void saveResponseOfFirstRequest() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.empty());
+        given(pjp.proceed()).willReturn(response());
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+
+        //when
+        aspect.aroundMethod(pjp);
+
+        //then
+        verify(idempotencyStore).put(eq("useBalance:1000000000:key"), captor.capture());
+        assertTrue(captor.getValue().isCompleted());
+        assertTrue(captor.getValue().getResponse().contains("transactionId"));
+    }
+
+    @Test
+    void replayResponseOfRepeatedRequest() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        givenReplayedMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.of(IdempotencyRecord.completed(requestHash(),
+                        objectMapper.writeValueAsString(response()))));
+
+        //when
+        Object result = aspect.aroundMethod(pjp);
+
+        //then, 다시 실행하지 않고 저장된 응답을 반환
+        verify(pjp, never()).proceed();
+        assertEquals("transactionId", ((UseBalance.Response) result).getTransactionId());
+        assertEquals(1000L, ((UseBalance.Response) result).getAmount());
+    }
+
+    @Test
+    void replayResponseOfAsyncMethod() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        given(pjp.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+        given(signature.getMethod()).willReturn(AsyncTransactionController.class
+                .getMethod("useBalance", UseBalance.Request.class));
+        given(pjp.getArgs()).willReturn(new Object[]{useRequest});
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.of(IdempotencyRecord.completed(requestHash(),
+                        objectMapper.writeValueAsString(response()))));
+
+        //when
+        Object result = aspect.aroundMethod(pjp);
+
+        //then
+        UseBalance.Response response = ((CompletableFuture<?>) result)
+                .thenApply(UseBalance.Response.class::cast).join();
+        assertEquals("transactionId", response.getTransactionId());
+    }
+
+    @Test
+    void repeatedRequestInProgress() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        givenReplayedMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.of(IdempotencyRecord.inProgress(requestHash())));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> aspect.aroundMethod(pjp));
+
+        //then
+        assertEquals(IDEMPOTENT_REQUEST_IN_PROGRESS, exception.getErrorCode());
+        verify(pjp, never()).proceed();
+    }
+
+    @Test
+    void idempotencyKeyReusedWithDifferentRequest() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        givenReplayedMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.of(IdempotencyRecord.completed("otherHash", "{}")));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> aspect.aroundMethod(pjp));
+
+        //then
+        assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(pjp, never()).proceed();
+    }
+
+    @Test
+    void removeKeyWhenRequestFails() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.empty());
+        given(pjp.proceed()).willThrow(new IllegalStateException("fail"));
+
+        //when
+        assertThrows(IllegalStateException.class, () -> aspect.aroundMethod(pjp));
+
+        //then, 같은 키로 다시 시도할 수 있음
+        verify(idempotencyStore).remove("useBalance:1000000000:key");
+        verify(idempotencyStore, never()).put(anyString(), any());
+    }
+
+    @Test
+    void saveFailureOfRejectedRequest() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.empty());
+        given(pjp.proceed()).willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+        ArgumentCaptor<IdempotencyRecord> captor = ArgumentCaptor.forClass(IdempotencyRecord.class);
+
+        //when
+        assertThrows(AccountException.class, () -> aspect.aroundMethod(pjp));
+
+        //then, 키를 지우지 않고 실패 결과를 저장
+        verify(idempotencyStore).put(eq("useBalance:1000000000:key"), captor.capture());
+        verify(idempotencyStore, never()).remove(anyString());
+        assertTrue(captor.getValue().isCompleted());
+        assertEquals(AMOUNT_EXCEED_BALANCE, captor.getValue().getErrorCode());
+    }
+
+    @Test
+    void replayFailureOfRepeatedRequest() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        givenReplayedMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.of(IdempotencyRecord.failed(requestHash(),
+                        AMOUNT_EXCEED_BALANCE)));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> aspect.aroundMethod(pjp));
+
+        //then, 다시 실행하지 않으므로 실패 거래도 다시 남지 않음
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(pjp, never()).proceed();
+    }
+
+    @Test
+    void removeKeyWhenRequestCanBeRetried() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.empty());
+        given(pjp.proceed()).willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK));
+
+        //when
+        assertThrows(AccountException.class, () -> aspect.aroundMethod(pjp));
+
+        //then
+        verify(idempotencyStore).remove("useBalance:1000000000:key");
+        verify(idempotencyStore, never()).put(anyString(), any());
+    }
+
+    @Test
+    void keepInProgressWhenOutcomeIsUnknown() throws Throwable {
+        //given
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "key");
+        givenUseBalanceMethod();
+        given(idempotencyStore.putIfAbsent(eq("useBalance:1000000000:key"), any()))
+                .willReturn(Optional.empty());
+        given(pjp.proceed()).willThrow(new AccountException(TRANSACTION_RESULT_TIMEOUT));
+
+        //when
+        assertThrows(AccountException.class, () -> aspect.aroundMethod(pjp));
+
+        //then, 엔진이 나중에 커밋할 수 있으므로 실패로 저장하지도, 키를 지우지도 않음
+        verify(idempotencyStore, never()).put(anyString(), any());
+        verify(idempotencyStore, never()).remove(anyString());
+    }
+
+    private void givenUseBalanceMethod() {
+        given(pjp.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+        given(pjp.getArgs()).willReturn(new Object[]{useRequest});
+    }
+
+    private void givenReplayedMethod() throws NoSuchMethodException {
+        given(signature.getMethod()).willReturn(TransactionController.class
+                .getMethod("useBalance", UseBalance.Request.class));
+    }
+
+    private String requestHash() throws Exception {
+        return DigestUtils.md5DigestAsHex(
+                objectMapper.writeValueAsBytes(new Object[]{useRequest}));
+    }
+
+    private UseBalance.Response response() {
+        return UseBalance.Response.builder()
+                .accountNumber("1000000000")
+                .transactionResult(TransactionResultType.S)
+                .transactionId("transactionId")
+                .amount(1000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
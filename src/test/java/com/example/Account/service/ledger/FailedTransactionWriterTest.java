@@ -0,0 +1,105 @@
+package com.example.Account.service.ledger;
+
+import com.example.Account.service.generator.TransactionIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static com.example.Account.type.TransactionType.CANCEL;
+import static com.example.Account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionWriterTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+
+    @Mock
+    private TransactionSequence transactionSequence;
+
+    @BeforeEach
+    void setUp() {
+        given(transactionSequence.next(anyInt()))
+                .willAnswer(invocation -> LongStream.rangeClosed(1,
+                        (int) invocation.getArgument(0)).toArray());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushQueuedTransactionsInBatches() {
+        //given, worker 를 띄우지 않고 flush 로 확인
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                jdbcTemplate, transactionIdGenerator, transactionSequence, 10, 2, 50L);
+        given(transactionIdGenerator.generate())
+                .willReturn("t1", "t2", "t3");
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        writer.write(USE, "1000000000", 100L);
+        writer.write(USE, "1000000000", 200L);
+        writer.write(CANCEL, "1000000001", 300L);
+        writer.flush();
+
+        //then, batch-size(2) 단위로 나눠서 insert
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        Object[] last = captor.getAllValues().get(1).get(0);
+        assertEquals(1L, last[0]);
+        assertEquals("CANCEL", last[1]);
+        assertEquals(300L, last[2]);
+        assertEquals("t3", last[3]);
+        assertEquals("1000000001", last[7]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeSynchronouslyWhenQueueIsFull() {
+        //given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                jdbcTemplate, transactionIdGenerator, transactionSequence, 1, 10, 1L);
+        given(transactionIdGenerator.generate())
+                .willReturn("t1", "t2");
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        writer.write(USE, "1000000000", 100L);
+        writer.write(USE, "1000000000", 200L);
+
+        //then, 두 번째 기록은 큐에 자리가 없어 호출한 스레드가 바로 저장
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture());
+        assertEquals("t2", captor.getValue().get(0)[3]);
+    }
+
+    @Test
+    void stopFlushesRemaining() throws InterruptedException {
+        //given
+        FailedTransactionWriter writer = new FailedTransactionWriter(
+                jdbcTemplate, transactionIdGenerator, transactionSequence, 10, 10, 50L);
+        writer.start();
+
+        //when
+        writer.write(USE, "1000000000", 100L);
+        writer.stop();
+
+        //then
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+}
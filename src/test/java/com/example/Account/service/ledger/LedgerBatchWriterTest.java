@@ -0,0 +1,141 @@
+package com.example.Account.service.ledger;
+
+import com.example.Account.type.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerBatchWriterTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionSequence transactionSequence;
+
+    @BeforeEach
+    void setUp() {
+        given(transactionSequence.next(anyInt()))
+                .willAnswer(invocation -> new long[(int) invocation.getArgument(0)]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateBalanceWithLatestInsertedRecord() {
+        //given
+        LedgerBatchWriter writer = new LedgerBatchWriter(jdbcTemplate, transactionManager, transactionSequence);
+        // t3 는 이전에 이미 저장된 기록
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willReturn(new int[]{1, 1, 0});
+        given(jdbcTemplate.queryForList(startsWith("select"), eq(String.class), any()))
+                .willReturn(Collections.singletonList("t3"));
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        List<LedgerRecord> rejected = writer.write(Arrays.asList(
+                record("t1", 1L, 9000L),
+                record("t2", 1L, 8000L),
+                record("t3", 2L, 4000L)));
+
+        //then, 계좌별 마지막 기록의 잔액으로 갱신하고, 이미 저장된 기록은 잔액에 반영하지 않음
+        verify(jdbcTemplate).batchUpdate(startsWith("update"), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(8000L, captor.getValue().get(0)[0]);
+        assertEquals(1L, captor.getValue().get(0)[2]);
+        assertTrue(rejected.isEmpty());
+        verify(transactionManager).commit(null);
+    }
+
+    @Test
+    void skipBalanceUpdateWhenAllRecordsExist() {
+        //given
+        LedgerBatchWriter writer = new LedgerBatchWriter(jdbcTemplate, transactionManager, transactionSequence);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willReturn(new int[]{0});
+        given(jdbcTemplate.queryForList(startsWith("select"), eq(String.class), any()))
+                .willReturn(Collections.singletonList("t1"));
+
+        //when, 같은 기록을 다시 반영
+        List<LedgerRecord> rejected =
+                writer.write(Collections.singletonList(record("t1", 1L, 9000L)));
+
+        //then
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("update"), anyList());
+        assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectRecordOfMissingAccount() {
+        //given, t2 의 계좌가 DB 에 없어서 insert 되지 않은 경우
+        LedgerBatchWriter writer = new LedgerBatchWriter(jdbcTemplate, transactionManager, transactionSequence);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willReturn(new int[]{1, 0});
+        given(jdbcTemplate.queryForList(startsWith("select"), eq(String.class), any()))
+                .willReturn(Collections.emptyList());
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        List<LedgerRecord> rejected = writer.write(Arrays.asList(
+                record("t1", 1L, 9000L),
+                record("t2", 2L, 4000L)));
+
+        //then, 저장하지 못한 기록을 돌려주고 잔액은 저장한 기록으로만 갱신
+        assertEquals(1, rejected.size());
+        assertEquals("t2", rejected.get(0).getTransactionId());
+        verify(jdbcTemplate).batchUpdate(startsWith("update"), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(1L, captor.getValue().get(0)[2]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void markOriginalCanceledForInsertedCancelRecord() {
+        //given
+        LedgerBatchWriter writer = new LedgerBatchWriter(jdbcTemplate, transactionManager, transactionSequence);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willReturn(new int[]{1, 1});
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        writer.write(Arrays.asList(
+                record("t1", 1L, 9000L),
+                new LedgerRecord("t2", TransactionType.CANCEL, 1L, 1000L,
+                        10000L, LocalDateTime.now(), "1000000001", "t1")));
+
+        //then
+        verify(jdbcTemplate).batchUpdate(startsWith("update transaction"), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("t1", captor.getValue().get(0)[1]);
+    }
+
+    private static LedgerRecord record(String transactionId, Long accountId, Long balance) {
+        return new LedgerRecord(transactionId, TransactionType.USE, accountId, 1000L,
+                balance, LocalDateTime.now(), "100000000" + accountId, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.Account.service.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionSequenceTest {
+    private static final String NEXT_VALUE_SQL = "call next value for transaction_seq";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allocateIdsFromPooledBlocks() {
+        //given, 시퀀스 값 하나가 allocation-size(50) 개의 id 블록
+        TransactionSequence sequence = new TransactionSequence(jdbcTemplate, NEXT_VALUE_SQL, 50);
+        given(jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class))
+                .willReturn(1L, 101L);
+
+        //when
+        long[] first = sequence.next(30);
+        long[] second = sequence.next(30);
+
+        //then, 남은 블록을 먼저 쓰고 모자랄 때만 시퀀스를 조회
+        verify(jdbcTemplate, times(2)).queryForObject(NEXT_VALUE_SQL, Long.class);
+        assertEquals(1L, first[0]);
+        assertEquals(30L, first[29]);
+        assertEquals(31L, second[0]);
+        assertEquals(50L, second[19]);
+        assertEquals(101L, second[20]);
+        assertEquals(110L, second[29]);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.Account.service.lock;
+
+import com.example.Account.aop.AccountLock;
+import com.example.Account.dto.UseBalance;
+import com.example.Account.exception.AccountException;
+import com.example.Account.type.ErrorCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLockKeyResolverTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    private final AccountLockKeyResolver accountLockKeyResolver = new AccountLockKeyResolver();
+
+    @Test
+    void resolveRequestProperty() throws Exception {
+        //given
+        Method method = givenMethod("useBalance", UseBalance.Request.class);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{
+                new UseBalance.Request(1L, "1000000000", 1000L)});
+
+        //when
+        String accountNumber = accountLockKeyResolver.resolve(proceedingJoinPoint,
+                method.getAnnotation(AccountLock.class));
+
+        //then
+        assertEquals("1000000000", accountNumber);
+    }
+
+    @Test
+    void resolvePathVariable() throws Exception {
+        //given
+        Method method = givenMethod("closeAccount", Long.class, String.class);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{1L, "2000000000"});
+
+        //when
+        String accountNumber = accountLockKeyResolver.resolve(proceedingJoinPoint,
+                method.getAnnotation(AccountLock.class));
+
+        //then
+        assertEquals("2000000000", accountNumber);
+    }
+
+    @Test
+    void resolveLockIdArgumentWithoutKey() throws Exception {
+        //given
+        Method method = LockedEndpoints.class.getDeclaredMethod("legacy", UseBalance.Request.class);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{
+                new UseBalance.Request(1L, "3000000000", 1000L)});
+
+        //when
+        String accountNumber = accountLockKeyResolver.resolve(proceedingJoinPoint,
+                method.getAnnotation(AccountLock.class));
+
+        //then
+        assertEquals("3000000000", accountNumber);
+    }
+
+    @Test
+    void resolveFailed_emptyKey() throws Exception {
+        //given
+        Method method = givenMethod("closeAccount", Long.class, String.class);
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{1L, null});
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountLockKeyResolver.resolve(proceedingJoinPoint,
+                        method.getAnnotation(AccountLock.class)));
+
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private Method givenMethod(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = LockedEndpoints.class.getDeclaredMethod(name, parameterTypes);
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(method);
+        return method;
+    }
+
+    private static class LockedEndpoints {
+        @AccountLock(key = "#request.accountNumber")
+        void useBalance(UseBalance.Request request) {
+        }
+
+        @AccountLock(key = "#accountNumber")
+        void closeAccount(Long userId, String accountNumber) {
+        }
+
+        @AccountLock
+        void legacy(UseBalance.Request request) {
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.Account.service.lock;
+
+import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
+import com.example.Account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAccountLockExecutorTest {
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private LatencyInjector latencyInjector;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private AccountLockHandle accountLockHandle;
+
+    private AsyncAccountLockExecutor asyncAccountLockExecutor;
+
+    @BeforeEach
+    void setUp() {
+        asyncAccountLockExecutor = new AsyncAccountLockExecutor(
+                lockService, latencyInjector, accountMetrics, 2, 10, "redis");
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncAccountLockExecutor.shutdown();
+    }
+
+    @Test
+    void rejectLocalLockProvider() {
+        //given
+        //when
+        //then, local lock 은 잡은 스레드에서만 해제할 수 있어 모든 요청이 실패하므로 기동 시 거부
+        assertThrows(IllegalStateException.class, () -> new AsyncAccountLockExecutor(
+                lockService, latencyInjector, accountMetrics, 2, 10, "local"));
+    }
+
+    @Test
+    void executeWithLockAndUnlockWithSameOwner() throws Exception {
+        //given
+        given(lockService.lockAsync(eq("1234"), any()))
+                .willReturn(CompletableFuture.completedFuture(accountLockHandle));
+        given(lockService.unlockAsync(accountLockHandle))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        //when
+        String result = asyncAccountLockExecutor.execute("useBalance", "1234",
+                        LockOptions.defaults(), () -> "done")
+                .get(1, TimeUnit.SECONDS);
+
+        //then
+        assertEquals("done", result);
+        verify(latencyInjector).inject("useBalance");
+        verify(lockService).unlockAsync(accountLockHandle);
+        verify(accountMetrics).recordServiceTime(eq("useBalance"), eq(true), anyLong());
+        verify(accountMetrics).recordLockHold(eq("useBalance"), anyLong());
+    }
+
+    @Test
+    void unlockEvenIfTaskThrows() {
+        //given
+        given(lockService.lockAsync(eq("1234"), any()))
+                .willReturn(CompletableFuture.completedFuture(accountLockHandle));
+        given(lockService.unlockAsync(accountLockHandle))
+                .willReturn(CompletableFuture.completedFuture(null));
+
+        //when
+        CompletableFuture<Object> future = asyncAccountLockExecutor.execute(
+                "useBalance", "1234", LockOptions.defaults(), () -> {
+                    throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+                });
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> future.get(1, TimeUnit.SECONDS));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(lockService).unlockAsync(accountLockHandle);
+    }
+
+    @Test
+    void skipTaskAndUnlockWhenLockFails() {
+        //given
+        CompletableFuture<AccountLockHandle> lockFailure = new CompletableFuture<>();
+        lockFailure.completeExceptionally(
+                new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        given(lockService.lockAsync(eq("1234"), any()))
+                .willReturn(lockFailure);
+        AtomicBoolean executed = new AtomicBoolean();
+
+        //when
+        CompletableFuture<Boolean> future = asyncAccountLockExecutor.execute(
+                "useBalance", "1234", LockOptions.defaults(), () -> executed.getAndSet(true));
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> future.get(1, TimeUnit.SECONDS));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+        assertFalse(executed.get());
+        verify(lockService, never()).unlockAsync(any());
+    }
+}
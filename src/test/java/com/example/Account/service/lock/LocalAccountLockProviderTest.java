@@ -0,0 +1,124 @@
+package com.example.Account.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalAccountLockProviderTest {
+    private final LocalAccountLockProvider lockProvider = new LocalAccountLockProvider(16);
+
+    @Test
+    void lockIsExclusiveAcrossThreads() throws Exception {
+        //given
+        AccountLockHandle handle = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when, 다른 스레드는 wait time(1초) 동안 lock 을 얻지 못함
+            Future<Boolean> other = executor.submit(() ->
+                    lockProvider.tryLock("1000000000", LockOptions.defaults()).isPresent());
+
+            //then
+            assertFalse(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            handle.release();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void lockCanBeAcquiredAfterUnlock() throws Exception {
+        //given
+        lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow().release();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when
+            Future<Boolean> other = executor.submit(() -> {
+                Optional<AccountLockHandle> handle = lockProvider.tryLock("1000000000", LockOptions.defaults());
+                handle.ifPresent(AccountLockHandle::release);
+                return handle.isPresent();
+            });
+
+            //then
+            assertTrue(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void releaseTwiceUnlocksOnlyOwnHold() throws Exception {
+        //given, 같은 스레드에서 두 번 잡은 lock (재진입)
+        AccountLockHandle first = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+        AccountLockHandle second = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when, 첫 번째 핸들을 두 번 해제해도 두 번째 핸들의 lock 은 유지됨
+            first.release();
+            first.release();
+            Future<Boolean> other = executor.submit(() ->
+                    lockProvider.tryLock("1000000000", LockOptions.defaults()).isPresent());
+
+            //then
+            assertFalse(first.isHeld());
+            assertTrue(second.isHeld());
+            assertFalse(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            second.release();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void releaseFromOtherThreadIsRejected() throws Exception {
+        //given
+        AccountLockHandle handle = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when
+            Future<Throwable> failure = executor.submit(() ->
+                    handle.releaseAsync().handle((result, e) -> e).join());
+
+            //then, 해제되지 않았으므로 lock 도 핸들도 그대로 유지
+            assertInstanceOf(IllegalMonitorStateException.class, failure.get(5, TimeUnit.SECONDS));
+            assertTrue(handle.isHeld());
+            Future<Boolean> other = executor.submit(() ->
+                    lockProvider.tryLock("1000000000", LockOptions.of(0L, LockOptions.WATCHDOG_LEASE_TIME))
+                            .isPresent());
+            assertFalse(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            handle.release();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void failFastDoesNotWait() throws Exception {
+        //given
+        AccountLockHandle handle = lockProvider.tryLock("1000000000", LockOptions.defaults())
+                .orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when, 대기 시간 0 이면 바로 실패
+            Future<Long> elapsedMs = executor.submit(() -> {
+                long start = System.nanoTime();
+                assertFalse(lockProvider.tryLock("1000000000",
+                        LockOptions.of(0L, LockOptions.WATCHDOG_LEASE_TIME)).isPresent());
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            });
+
+            //then
+            assertTrue(elapsedMs.get(5, TimeUnit.SECONDS) < 500L);
+        } finally {
+            handle.release();
+            executor.shutdown();
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.example.Account.service.lock;
 
+import com.example.Account.aop.AccountLock;
 import com.example.Account.dto.UseBalance;
 import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
 import com.example.Account.type.ErrorCode;
+import com.example.Account.type.LockPolicy;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,33 +33,55 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private AccountLockKeyResolver accountLockKeyResolver;
+
+    @Mock
+    private LatencyInjector latencyInjector;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private Signature signature;
+
+    @Mock
+    private AccountMetrics accountMetrics;
+
+    @Mock
+    private AccountLockHandle accountLockHandle;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
+    private final AccountLock accountLock = annotationOf("waitingEndpoint");
+
     @Test
     void lockAndUnlock() throws Throwable {
         //given
         ArgumentCaptor<String> lockArgumentCaptor =
                 ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unLockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<AccountLockHandle> unLockArgumentCaptor =
+                ArgumentCaptor.forClass(AccountLockHandle.class);
         UseBalance.Request request =
                 new UseBalance.Request(
                         1234L, "1234", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(lockService.lock(eq(request.getAccountNumber()), any()))
+                .willReturn(accountLockHandle);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
 
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock);
 
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), any());
         verify(lockService, times(1))
                 .unlock(unLockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
-        assertEquals("1234", unLockArgumentCaptor.getValue());
+        assertSame(accountLockHandle, unLockArgumentCaptor.getValue());
     }
 
     @Test
@@ -56,25 +89,144 @@ class LockAopAspectTest {
         //given
         ArgumentCaptor<String> lockArgumentCaptor =
                 ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> unLockArgumentCaptor =
-                ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<AccountLockHandle> unLockArgumentCaptor =
+                ArgumentCaptor.forClass(AccountLockHandle.class);
         UseBalance.Request request =
                 new UseBalance.Request(
                         1234L, "54321", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(lockService.lock(eq(request.getAccountNumber()), any()))
+                .willReturn(accountLockHandle);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
         given(proceedingJoinPoint.proceed())
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         //when, exception이 발생해도 lock과 unlock은 제대로 작동함
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock));
 
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), any());
         verify(lockService, times(1))
                 .unlock(unLockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
-        assertEquals("54321", unLockArgumentCaptor.getValue());
+        assertSame(accountLockHandle, unLockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void injectLatencyWhileHoldingLock() throws Throwable {
+        //given
+        UseBalance.Request request =
+                new UseBalance.Request(
+                        1234L, "1234", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(lockService.lock(eq(request.getAccountNumber()), any()))
+                .willReturn(accountLockHandle);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock);
+
+        //then, 지연은 lock 을 잡은 뒤, 실제 작업 전에 주입됨
+        InOrder inOrder = inOrder(lockService, latencyInjector, proceedingJoinPoint);
+        inOrder.verify(lockService).lock(eq("1234"), any());
+        inOrder.verify(latencyInjector).inject("useBalance");
+        inOrder.verify(proceedingJoinPoint).proceed();
+        inOrder.verify(lockService).unlock(accountLockHandle);
+    }
+
+    @Test
+    void recordServiceAndHoldTime_evenIfThrow() throws Throwable {
+        //given
+        UseBalance.Request request =
+                new UseBalance.Request(
+                        1234L, "1234", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(lockService.lock(eq(request.getAccountNumber()), any()))
+                .willReturn(accountLockHandle);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("useBalance");
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        //when
+        assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock));
+
+        //then
+        verify(accountMetrics).recordServiceTime(eq("useBalance"), eq(false), anyLong());
+        verify(accountMetrics).recordLockHold(eq("useBalance"), anyLong());
+    }
+
+    @Test
+    void notProceedWhenLockFails() throws Throwable {
+        //given
+        UseBalance.Request request =
+                new UseBalance.Request(
+                        1234L, "1234", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(lockService.lock(eq("1234"), any()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+
+        //when
+        assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock));
+
+        //then, 취득하지 못한 lock 은 해제하지 않음
+        verify(proceedingJoinPoint, never()).proceed();
+        verify(lockService, never()).unlock(any());
+    }
+
+    @Test
+    void lockWithAnnotationOptions() throws Throwable {
+        //given
+        ArgumentCaptor<LockOptions> optionsCaptor =
+                ArgumentCaptor.forClass(LockOptions.class);
+        UseBalance.Request request =
+                new UseBalance.Request(
+                        1234L, "1234", 1000L);
+        given(accountLockKeyResolver.resolve(eq(proceedingJoinPoint), any()))
+                .willReturn(request.getAccountNumber());
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(lockService.lock(eq("1234"), any()))
+                .willReturn(accountLockHandle);
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock);
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                annotationOf("failFastEndpoint"));
+
+        //then, FAIL_FAST 는 tryLocTime 과 상관없이 기다리지 않음
+        verify(lockService, times(2)).lock(eq("1234"), optionsCaptor.capture());
+        assertEquals(300L, optionsCaptor.getAllValues().get(0).getWaitTimeMs());
+        assertEquals(-1L, optionsCaptor.getAllValues().get(0).getLeaseTimeMs());
+        assertEquals(0L, optionsCaptor.getAllValues().get(1).getWaitTimeMs());
+        assertEquals(2000L, optionsCaptor.getAllValues().get(1).getLeaseTimeMs());
+    }
+
+    private static AccountLock annotationOf(String methodName) {
+        try {
+            return LockedEndpoints.class.getDeclaredMethod(methodName)
+                    .getAnnotation(AccountLock.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class LockedEndpoints {
+        @AccountLock(tryLocTime = 300L)
+        void waitingEndpoint() {
+        }
+
+        @AccountLock(tryLocTime = 300L, leaseTime = 2000L, policy = LockPolicy.FAIL_FAST)
+        void failFastEndpoint() {
+        }
+    }
+}
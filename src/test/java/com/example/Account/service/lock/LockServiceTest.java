@@ -1,26 +1,37 @@
 package com.example.Account.service.lock;
 
 import com.example.Account.exception.AccountException;
+import com.example.Account.metrics.AccountMetrics;
 import com.example.Account.type.ErrorCode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
     @Mock
-    private RedissonClient redissonClient;
+    private AccountLockProvider accountLockProvider;
+
+    @Mock
+    private AccountLockHandle accountLockHandle;
 
     @Mock
-    private RLock rLock;
+    private AccountMetrics accountMetrics;
 
     @InjectMocks
     private LockService lockService;
@@ -28,24 +39,21 @@ class LockServiceTest {
     @Test
     void successGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
-                .willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any()))
-                .willReturn(true);
+        given(accountLockProvider.tryLock(anyString(), any()))
+                .willReturn(Optional.of(accountLockHandle));
 
         //when
+        AccountLockHandle handle = lockService.lock("123");
 
         //then
-        assertDoesNotThrow(() -> lockService.lock("123"));
+        assertSame(accountLockHandle, handle);
     }
 
     @Test
     void failGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
-                .willReturn(rLock);
-        given(rLock.tryLock(anyLong(), anyLong(), any()))
-                .willReturn(false);
+        given(accountLockProvider.tryLock(anyString(), any()))
+                .willReturn(Optional.empty());
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -53,5 +61,62 @@ class LockServiceTest {
 
         //then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(accountMetrics).recordLockWait(anyLong(), eq(false));
+    }
+
+    @Test
+    void failGetLock_providerError() throws InterruptedException {
+        //given
+        given(accountLockProvider.tryLock(anyString(), any()))
+                .willThrow(new RedisConnectionException("connection refused"));
+
+        //when, lock 없이 진행하지 않고 실패함
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("123"));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(accountMetrics).recordLockWait(anyLong(), eq(false));
+    }
+
+    @Test
+    void failGetLock_interrupted() throws InterruptedException {
+        //given
+        given(accountLockProvider.tryLock(anyString(), any()))
+                .willThrow(new InterruptedException());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lock("123"));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void failGetLockAsync_providerError() {
+        //given
+        given(accountLockProvider.tryLockAsync(anyString(), any()))
+                .willReturn(CompletableFuture.failedFuture(
+                        new RedisConnectionException("connection refused")));
+
+        //when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> lockService.lockAsync("123", LockOptions.defaults()).get());
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+
+    @Test
+    void unlock() {
+        //given
+        //when
+        lockService.unlock(accountLockHandle);
+
+        //then
+        verify(accountLockHandle).release();
     }
-}
\ No newline at end of file
+}
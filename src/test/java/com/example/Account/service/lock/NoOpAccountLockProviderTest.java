@@ -0,0 +1,60 @@
+package com.example.Account.service.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoOpAccountLockProviderTest {
+    private final NoOpAccountLockProvider lockProvider = new NoOpAccountLockProvider();
+
+    @Test
+    void lockIsNotExclusive() throws Exception {
+        //given
+        AccountLockHandle handle = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            //when, 동시 수정은 version 충돌로 감지하므로 다른 스레드도 바로 얻음
+            Future<Boolean> other = executor.submit(() ->
+                    lockProvider.tryLock("1000000000", LockOptions.of(0L, LockOptions.WATCHDOG_LEASE_TIME))
+                            .isPresent());
+
+            //then
+            assertTrue(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            handle.release();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void releaseHandle() throws Exception {
+        //given
+        AccountLockHandle handle = lockProvider.tryLock("1000000000", LockOptions.defaults()).orElseThrow();
+
+        //when
+        handle.release();
+        handle.release();
+
+        //then
+        assertEquals("1000000000", handle.getAccountNumber());
+        assertFalse(handle.isHeld());
+    }
+
+    @Test
+    void lockAsyncCompletesImmediately() {
+        //when
+        Optional<AccountLockHandle> handle = lockProvider.tryLockAsync(
+                "1000000000", LockOptions.defaults()).join();
+
+        //then
+        assertTrue(handle.isPresent());
+        assertTrue(handle.get().isHeld());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.Account.service.lock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedissonAccountLockProviderTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock rLock;
+
+    @InjectMocks
+    private RedissonAccountLockProvider lockProvider;
+
+    @Test
+    void successGetLock() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+
+        //when
+        //then
+        assertTrue(lockProvider.tryLock("123", LockOptions.defaults()).isPresent());
+        verify(redissonClient).getLock("ACLK : 123");
+        // lease 는 watchdog 으로 연장
+        verify(rLock).tryLock(1000L, -1L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void failGetLock() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+
+        //when
+        //then
+        assertFalse(lockProvider.tryLock("123", LockOptions.defaults()).isPresent());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releaseOnlyOnceWithOwnerThreadId() throws InterruptedException {
+        //given
+        RFuture<Void> unlockFuture = mock(RFuture.class);
+        given(unlockFuture.toCompletableFuture())
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(unlockFuture);
+        AccountLockHandle handle = lockProvider.tryLock("123", LockOptions.defaults()).orElseThrow();
+
+        //when
+        handle.release();
+        handle.release();
+
+        //then
+        verify(rLock, times(1)).unlockAsync(Thread.currentThread().getId());
+        assertFalse(handle.isHeld());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releaseIgnoresLockNotHeld() throws InterruptedException {
+        //given, lease 가 만료되어 이미 소유하지 않은 lock
+        RFuture<Void> unlockFuture = mock(RFuture.class);
+        given(unlockFuture.toCompletableFuture())
+                .willReturn(CompletableFuture.failedFuture(
+                        new IllegalMonitorStateException("not locked by current thread")));
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(unlockFuture);
+        AccountLockHandle handle = lockProvider.tryLock("123", LockOptions.defaults()).orElseThrow();
+
+        //when
+        //then
+        assertDoesNotThrow(handle::release);
+    }
+}